@@ -1,16 +1,19 @@
 package ru.practicum.shareit.booking.client;
 
+import java.util.HashMap;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
+import ru.practicum.shareit.booking.dto.BookingDecisionRequestDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.status.BookingState;
 import ru.practicum.shareit.client.BaseClient;
 
 @Service
@@ -18,11 +21,12 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory requestFactory) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
+                        .requestFactory(() -> requestFactory)
                         .build()
         );
     }
@@ -37,19 +41,35 @@ public class BookingClient extends BaseClient {
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
+    public ResponseEntity<Object> updateBookings(Long userId, BookingDecisionRequestDto decision) {
+        return patch("/batch", userId, decision);
+    }
+
     public ResponseEntity<Object> findBookingById(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> findUserBookings(Long userId, String state) {
-        Map<String, Object> parameters = Map.of("state", state);
+    public ResponseEntity<Object> findUserBookings(Long userId, BookingState state, String after, Integer size) {
+        return findBookings("", userId, state, after, size);
+    }
 
-        return get("?state={state}", userId, parameters);
+    public ResponseEntity<Object> findOwnerReservedItems(Long userId, BookingState state, String after, Integer size) {
+        return findBookings("/owner", userId, state, after, size);
     }
 
-    public ResponseEntity<Object> findOwnerReservedItems(Long userId, String state) {
-        Map<String, Object> parameters = Map.of("state", state);
+    private ResponseEntity<Object> findBookings(String path, Long userId, BookingState state, String after, Integer size) {
+        Map<String, Object> parameters = new HashMap<>(Map.of("state", state.name()));
+        StringBuilder query = new StringBuilder(path).append("?state={state}");
+
+        if (after != null) {
+            parameters.put("after", after);
+            query.append("&after={after}");
+        }
+        if (size != null) {
+            parameters.put("size", size);
+            query.append("&size={size}");
+        }
 
-        return get("/owner?state={state}", userId, parameters);
+        return get(query.toString(), userId, parameters);
     }
 }
@@ -6,10 +6,14 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import ru.practicum.shareit.booking.client.BookingClient;
+import ru.practicum.shareit.booking.dto.BookingDecisionRequestDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.status.BookingState;
 
 
 @Controller
@@ -18,6 +22,8 @@ import ru.practicum.shareit.booking.dto.BookingRequestDto;
 @Slf4j
 @Validated
 public class BookingController {
+    private static final String BOOKING_CURSOR = "\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}(:\\d{2}(\\.\\d{1,9})?)?,\\d+";
+
     private final BookingClient bookingClient;
 
     @PostMapping
@@ -33,6 +39,13 @@ public class BookingController {
         return bookingClient.updateBooking(userId, bookingId, approved);
     }
 
+    @PatchMapping("/batch")
+    public ResponseEntity<Object> updateBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                 @RequestBody @Valid BookingDecisionRequestDto decision) {
+        log.info("Решение по {} бронированиям пользователя {}", decision.getBookingIds().size(), userId);
+        return bookingClient.updateBookings(userId, decision);
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> findBookingById(@RequestHeader("X-Sharer-User-Id") long userId,
                                                   @PathVariable Long bookingId) {
@@ -41,14 +54,24 @@ public class BookingController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> findUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId, @RequestParam(name = "state", defaultValue = "ALL") String state) {
+    public ResponseEntity<Object> findUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                   @RequestParam(name = "state", defaultValue = "ALL") BookingState state,
+                                                   @RequestParam(required = false)
+                                                   @Pattern(regexp = BOOKING_CURSOR, message = "Курсор пагинации указан неверно") String after,
+                                                   @RequestParam(required = false)
+                                                   @Positive(message = "Размер страницы указан неверно") Integer size) {
         log.info("Получить бронирования {}.", state);
-        return bookingClient.findUserBookings(userId, state);
+        return bookingClient.findUserBookings(userId, state, after, size);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> findOwnerReservedItems(@RequestHeader("X-Sharer-User-Id") Long userId, @RequestParam(name = "state", defaultValue = "ALL") String state) {
+    public ResponseEntity<Object> findOwnerReservedItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                         @RequestParam(name = "state", defaultValue = "ALL") BookingState state,
+                                                         @RequestParam(required = false)
+                                                         @Pattern(regexp = BOOKING_CURSOR, message = "Курсор пагинации указан неверно") String after,
+                                                         @RequestParam(required = false)
+                                                         @Positive(message = "Размер страницы указан неверно") Integer size) {
         log.info("Получить зарезервированные товары владельца{}.", state);
-        return bookingClient.findOwnerReservedItems(userId, state);
+        return bookingClient.findOwnerReservedItems(userId, state, after, size);
     }
 }
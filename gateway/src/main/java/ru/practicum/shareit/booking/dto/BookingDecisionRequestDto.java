@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class BookingDecisionRequestDto {
+    @NotEmpty
+    @Size(max = 100)
+    private List<@NotNull @Positive Long> bookingIds;
+    @NotNull
+    private Boolean approved;
+}
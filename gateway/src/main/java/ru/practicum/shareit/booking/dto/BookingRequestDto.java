@@ -6,12 +6,14 @@ import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
+import ru.practicum.shareit.booking.validation.StartBeforeEnd;
 
 import java.time.LocalDateTime;
 
 @AllArgsConstructor
 @Getter
 @Setter
+@StartBeforeEnd
 public class BookingRequestDto {
     @NotNull
     private Long itemId;
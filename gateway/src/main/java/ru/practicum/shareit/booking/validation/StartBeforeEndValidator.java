@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.validation;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+
+public class StartBeforeEndValidator implements ConstraintValidator<StartBeforeEnd, BookingRequestDto> {
+
+    @Override
+    public boolean isValid(BookingRequestDto booking, ConstraintValidatorContext context) {
+        if (booking.getStart() == null || booking.getEnd() == null) {
+            return true;
+        }
+
+        return booking.getStart().isBefore(booking.getEnd());
+    }
+}
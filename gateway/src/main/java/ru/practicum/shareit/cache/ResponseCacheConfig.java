@@ -0,0 +1,17 @@
+package ru.practicum.shareit.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties({ResponseCacheProperties.class, SearchCacheProperties.class})
+public class ResponseCacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit.gateway.response-cache.enabled", havingValue = "true")
+    public ResponseCacheFilter responseCacheFilter(ResponseCacheProperties properties) {
+        return new ResponseCacheFilter(properties);
+    }
+}
@@ -0,0 +1,178 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+public class ResponseCacheFilter extends OncePerRequestFilter {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final Set<String> CACHEABLE = Set.of("users", "items", "requests");
+    private static final Map<String, Set<String>> INVALIDATES = Map.of(
+            "users", Set.of("users", "items", "requests"),
+            "items", Set.of("items", "requests"),
+            "bookings", Set.of("items"),
+            "requests", Set.of("requests"));
+
+    private final Cache<CacheKey, CachedResponse> cache;
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public ResponseCacheFilter(ResponseCacheProperties properties) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maxSize())
+                .expireAfterWrite(properties.ttl())
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String root = rootOf(request.getRequestURI());
+        HttpMethod method = HttpMethod.valueOf(request.getMethod());
+
+        if (HttpMethod.GET.equals(method) && CACHEABLE.contains(root)) {
+            serveCached(root, request, response, chain);
+            return;
+        }
+
+        if (HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method) || HttpMethod.OPTIONS.equals(method)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, wrapper);
+
+        if (HttpStatus.valueOf(wrapper.getStatus()).is2xxSuccessful()) {
+            invalidate(root);
+        }
+
+        wrapper.copyBodyToResponse();
+    }
+
+    private void serveCached(String root, HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        CacheKey key = new CacheKey(root, request.getRequestURI(), request.getQueryString(),
+                request.getHeader(USER_HEADER));
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        CachedResponse cached = cache.getIfPresent(key);
+
+        if (cached != null) {
+            cached.writeTo(response, ifNoneMatch);
+            return;
+        }
+
+        long generation = generation(root).get();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, wrapper);
+
+        if (wrapper.getStatus() != HttpStatus.OK.value()) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+
+        CachedResponse fresh = CachedResponse.of(wrapper);
+        cache.put(key, fresh);
+
+        if (generation(root).get() != generation) {
+            cache.invalidate(key);
+        }
+
+        wrapper.setHeader(HttpHeaders.ETAG, fresh.etag());
+
+        if (fresh.matches(ifNoneMatch)) {
+            wrapper.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        wrapper.copyBodyToResponse();
+    }
+
+    private void invalidate(String root) {
+        Set<String> roots = INVALIDATES.getOrDefault(root, Set.of());
+
+        if (roots.isEmpty()) {
+            return;
+        }
+
+        roots.forEach(r -> generation(r).incrementAndGet());
+        cache.asMap().keySet().removeIf(key -> roots.contains(key.root()));
+        log.debug("Кэш ответов сброшен для {}", roots);
+    }
+
+    private AtomicLong generation(String root) {
+        return generations.computeIfAbsent(root, r -> new AtomicLong());
+    }
+
+    private static String rootOf(String uri) {
+        int start = uri.startsWith("/") ? 1 : 0;
+        int end = uri.indexOf('/', start);
+
+        return end < 0 ? uri.substring(start) : uri.substring(start, end);
+    }
+
+    private record CacheKey(String root, String uri, String query, String userId) {
+    }
+
+    private record CachedResponse(Map<String, List<String>> headers, byte[] body, String etag) {
+
+        static CachedResponse of(ContentCachingResponseWrapper response) {
+            Map<String, List<String>> headers = new ConcurrentHashMap<>();
+
+            for (String name : response.getHeaderNames()) {
+                headers.put(name, List.copyOf(response.getHeaders(name)));
+            }
+
+            if (response.getContentType() != null) {
+                headers.put(HttpHeaders.CONTENT_TYPE, List.of(response.getContentType()));
+            }
+
+            byte[] body = response.getContentAsByteArray();
+
+            return new CachedResponse(headers, body, "\"" + DigestUtils.md5DigestAsHex(body) + "\"");
+        }
+
+        boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+
+            return Arrays.stream(ifNoneMatch.split(","))
+                    .map(String::trim)
+                    .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                    .anyMatch(tag -> tag.equals("*") || tag.equals(etag));
+        }
+
+        void writeTo(HttpServletResponse response, String ifNoneMatch) throws IOException {
+            headers.forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+            response.setHeader(HttpHeaders.ETAG, etag);
+
+            if (matches(ifNoneMatch)) {
+                response.setStatus(HttpStatus.NOT_MODIFIED.value());
+                return;
+            }
+
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+}
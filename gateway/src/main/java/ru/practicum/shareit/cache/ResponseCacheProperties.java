@@ -0,0 +1,12 @@
+package ru.practicum.shareit.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "shareit.gateway.response-cache")
+public record ResponseCacheProperties(@DefaultValue("false") boolean enabled,
+                                      @DefaultValue("10000") long maxSize,
+                                      @DefaultValue("30s") Duration ttl) {
+}
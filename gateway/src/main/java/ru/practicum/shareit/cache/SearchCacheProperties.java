@@ -0,0 +1,12 @@
+package ru.practicum.shareit.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "shareit.gateway.search-cache")
+public record SearchCacheProperties(@DefaultValue("true") boolean enabled,
+                                    @DefaultValue("1000") long maxSize,
+                                    @DefaultValue("30s") Duration ttl) {
+}
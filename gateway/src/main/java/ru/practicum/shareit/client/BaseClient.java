@@ -1,18 +1,30 @@
 package ru.practicum.shareit.client;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
 public class BaseClient {
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "proxy-connection",
+            "te", "trailer", "transfer-encoding", "upgrade");
+
     protected final RestTemplate rest;
 
     public BaseClient(RestTemplate rest) {
@@ -79,19 +91,40 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    /**
+     * Запрос с разбором ответа в указанный тип — только там, где шлюзу нужно тело ответа.
+     */
+    protected <T, R> ResponseEntity<R> exchange(HttpMethod method, String path, Long userId,
+                                                @Nullable Map<String, Object> parameters, @Nullable T body,
+                                                Class<R> responseType) {
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+
+        if (parameters != null) {
+            return rest.exchange(path, method, requestEntity, responseType, parameters);
+        }
+
+        return rest.exchange(path, method, requestEntity, responseType);
+    }
+
+    /**
+     * Проксирует ответ сервера без разбора: статус, заголовки и поток тела передаются клиенту как есть.
+     * Соединение возвращается в пул, когда тело дочитано и поток закрыт при записи ответа.
+     */
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+        URI uri = parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
 
-        ResponseEntity<Object> shareitServerResponse;
+        ClientHttpResponse shareitServerResponse;
         try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, method);
+            rest.httpEntityCallback(requestEntity).doWithRequest(request);
+            shareitServerResponse = request.execute();
+        } catch (IOException e) {
+            throw new ResourceAccessException("Ошибка ввода-вывода при запросе " + method + " " + uri, e);
         }
+
         return prepareGatewayResponse(shareitServerResponse);
     }
 
@@ -105,17 +138,31 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    private static ResponseEntity<Object> prepareGatewayResponse(ClientHttpResponse response) {
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            response.getHeaders().forEach((name, values) -> {
+                if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    headers.addAll(name, values);
+                }
+            });
+
+            ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode()).headers(headers);
+
+            if (headers.getContentLength() == 0 || response.getStatusCode().isSameCodeAs(HttpStatus.NO_CONTENT)) {
+                response.close();
+                return responseBuilder.build();
+            }
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+            return responseBuilder.body(new InputStreamResource(new FilterInputStream(response.getBody()) {
+                @Override
+                public void close() {
+                    response.close();
+                }
+            }));
+        } catch (IOException e) {
+            response.close();
+            throw new ResourceAccessException("Ошибка чтения ответа сервера", e);
         }
-
-        return responseBuilder.build();
     }
 }
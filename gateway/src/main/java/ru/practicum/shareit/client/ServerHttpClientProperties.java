@@ -0,0 +1,20 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Настройки общего пула соединений шлюза с сервером.
+ */
+@ConfigurationProperties(prefix = "shareit-server.http-client")
+public record ServerHttpClientProperties(@DefaultValue("200") int maxTotal,
+                                         @DefaultValue("100") int maxPerRoute,
+                                         @DefaultValue("2s") Duration connectTimeout,
+                                         @DefaultValue("1s") Duration connectionRequestTimeout,
+                                         @DefaultValue("30s") Duration responseTimeout,
+                                         @DefaultValue("30s") Duration keepAlive,
+                                         @DefaultValue("2s") Duration validateAfterInactivity,
+                                         @DefaultValue("1m") Duration evictIdleAfter) {
+}
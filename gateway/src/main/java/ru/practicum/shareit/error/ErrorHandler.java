@@ -0,0 +1,111 @@
+package ru.practicum.shareit.error;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.MessageSourceResolvable;
+import org.springframework.http.HttpStatus;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
+import org.springframework.validation.method.ParameterErrors;
+import org.springframework.validation.method.ParameterValidationResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import ru.practicum.shareit.validation.ValidationMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Отвечает на запросы, не прошедшие проверку в шлюзе, в том же формате, что и сервер.
+ */
+@Slf4j
+@RestControllerAdvice
+@RequiredArgsConstructor
+public class ErrorHandler {
+    private static final String BAD_REQUEST = "Неправильный, некорректный запрос";
+
+    private final ValidationMetrics validationMetrics;
+
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleInvalidBody(final MethodArgumentNotValidException e) {
+        List<String> messages = new ArrayList<>();
+        e.getBindingResult().getAllErrors().forEach(error -> messages.add(reject(error)));
+
+        return badRequest(messages);
+    }
+
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleInvalidParameters(final HandlerMethodValidationException e) {
+        List<String> messages = new ArrayList<>();
+
+        for (ParameterValidationResult result : e.getAllValidationResults()) {
+            if (result instanceof ParameterErrors errors) {
+                errors.getAllErrors().forEach(error -> messages.add(reject(error)));
+                continue;
+            }
+
+            String parameter = result.getMethodParameter().getMethod().getName() + "."
+                    + result.getMethodParameter().getParameterName();
+
+            for (MessageSourceResolvable error : result.getResolvableErrors()) {
+                validationMetrics.rejected(parameter + "." + constraintName(error));
+                messages.add(error.getDefaultMessage());
+            }
+        }
+
+        return badRequest(messages);
+    }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleConstraintViolation(final ConstraintViolationException e) {
+        List<String> messages = new ArrayList<>();
+
+        for (ConstraintViolation<?> violation : e.getConstraintViolations()) {
+            validationMetrics.rejected(violation.getPropertyPath() + "."
+                    + violation.getConstraintDescriptor().getAnnotation().annotationType().getSimpleName());
+            messages.add(violation.getMessage());
+        }
+
+        return badRequest(messages);
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleTypeMismatch(final MethodArgumentTypeMismatchException e) {
+        validationMetrics.rejected(e.getParameter().getMethod().getName() + "." + e.getName() + ".TypeMismatch");
+
+        return badRequest(List.of("Значение параметра " + e.getName() + " указано неверно: " + e.getValue()));
+    }
+
+    private String reject(ObjectError error) {
+        String scope = error instanceof FieldError fieldError
+                ? error.getObjectName() + "." + fieldError.getField()
+                : error.getObjectName();
+
+        validationMetrics.rejected(scope + "." + constraintName(error));
+
+        return error.getDefaultMessage();
+    }
+
+    private static String constraintName(MessageSourceResolvable error) {
+        String[] codes = error.getCodes();
+
+        return codes == null || codes.length == 0 ? "unknown" : codes[codes.length - 1];
+    }
+
+    private static ErrorResponse badRequest(List<String> messages) {
+        String description = String.join("; ", messages);
+        log.warn("Запрос отклонен шлюзом: {}", description);
+
+        return new ErrorResponse(BAD_REQUEST, description);
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.error;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class ErrorResponse {
+    private final String error;
+    private final String description;
+}
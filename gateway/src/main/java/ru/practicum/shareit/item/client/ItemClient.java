@@ -1,55 +1,194 @@
 package ru.practicum.shareit.item.client;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.cache.SearchCacheProperties;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.comment.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private final Cache<SearchKey, SearchResult> searchCache;
+    private final AtomicLong searchGeneration = new AtomicLong();
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory, SearchCacheProperties searchCacheProperties,
+                      MeterRegistry meterRegistry) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
+                        .requestFactory(() -> requestFactory)
                         .build()
         );
+        this.searchCache = searchCacheProperties.enabled() ? searchCache(searchCacheProperties, meterRegistry) : null;
     }
 
     public ResponseEntity<Object> createItem(Long userId, ItemDto itemDto) {
-        return (post("", userId, itemDto));
+        return invalidateSearchesOnSuccess(post("", userId, itemDto));
+    }
+
+    public ResponseEntity<Object> createItems(Long userId, List<ItemDto> itemDtos) {
+        return invalidateSearchesOnSuccess(post("/batch", userId, itemDtos));
     }
 
     public ResponseEntity<Object> updateItem(Long userId, Long itemId, ItemDto itemDto) {
-        return (patch("/" + itemId, userId, itemDto));
+        return invalidateSearchesOnSuccess(patch("/" + itemId, userId, itemDto));
     }
 
     public ResponseEntity<Object> findItemById(Long userId, Long itemId) {
         return get("/" + itemId, userId);
     }
 
+    public ResponseEntity<Object> findAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder path = new StringBuilder("/").append(itemId).append("/availability");
+        String separator = "?";
+
+        if (from != null) {
+            parameters.put("from", from);
+            path.append(separator).append("from={from}");
+            separator = "&";
+        }
+        if (to != null) {
+            parameters.put("to", to);
+            path.append(separator).append("to={to}");
+        }
+
+        return get(path.toString(), userId, parameters);
+    }
+
     public ResponseEntity<Object> findUserItems(Long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> searchItem(Long userId, String text) {
-        Map<String, Object> parameters = Map.of("text", text);
+    /**
+     * Результат поиска не зависит от пользователя, поэтому одинаковые запросы обслуживаются из общего кэша.
+     * Оба поисковых движка сервера приводят текст к нижнему регистру, так же нормализуется и ключ.
+     */
+    public ResponseEntity<Object> searchItem(Long userId, String text, Long after, int from, Integer size) {
+        Map<String, Object> parameters = new HashMap<>(Map.of("text", text, "from", from));
+        String path = "/search?text={text}&from={from}";
+
+        if (size != null) {
+            parameters.put("size", size);
+            path += "&size={size}";
+        }
+
+        if (after != null) {
+            parameters.put("after", after);
+            path += "&after={after}";
+        }
+
+        if (searchCache == null) {
+            return get(path, userId, parameters);
+        }
+
+        SearchKey key = new SearchKey(text.toLowerCase(Locale.ROOT), after, from, size);
+        SearchResult cached = searchCache.getIfPresent(key);
+
+        if (cached != null) {
+            return cached.toResponseEntity();
+        }
+
+        long generation = searchGeneration.get();
+        SearchResult result;
+
+        try {
+            ResponseEntity<byte[]> response = exchange(HttpMethod.GET, path, userId, parameters, null, byte[].class);
+            result = SearchResult.of(response.getStatusCode(), response.getHeaders(), response.getBody());
+        } catch (HttpStatusCodeException e) {
+            return SearchResult.of(e.getStatusCode(), e.getResponseHeaders(), e.getResponseBodyAsByteArray())
+                    .toResponseEntity();
+        }
+
+        if (result.status().is2xxSuccessful()) {
+            searchCache.put(key, result);
+
+            if (searchGeneration.get() != generation) {
+                searchCache.invalidate(key);
+            }
+        }
 
-        return get("/search?text={text}", userId, parameters);
+        return result.toResponseEntity();
     }
 
     public ResponseEntity<Object> createComment(Long userId, Long itemId, CommentRequestDto commentRequestDto) {
         return post("/" + itemId + "/comment", userId, commentRequestDto);
     }
+
+    private ResponseEntity<Object> invalidateSearchesOnSuccess(ResponseEntity<Object> response) {
+        if (searchCache != null && response.getStatusCode().is2xxSuccessful()) {
+            searchGeneration.incrementAndGet();
+            searchCache.invalidateAll();
+        }
+
+        return response;
+    }
+
+    private static Cache<SearchKey, SearchResult> searchCache(SearchCacheProperties properties,
+                                                              MeterRegistry meterRegistry) {
+        Cache<SearchKey, SearchResult> cache = Caffeine.newBuilder()
+                .maximumSize(properties.maxSize())
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "item-search");
+        Gauge.builder("gateway.search.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Доля поисковых запросов, обслуженных из кэша шлюза")
+                .register(meterRegistry);
+
+        return cache;
+    }
+
+    private record SearchKey(String text, Long after, int from, Integer size) {
+    }
+
+    private record SearchResult(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+
+        static SearchResult of(HttpStatusCode status, HttpHeaders source, byte[] body) {
+            HttpHeaders headers = new HttpHeaders();
+
+            if (source != null) {
+                if (source.getContentType() != null) {
+                    headers.setContentType(source.getContentType());
+                }
+                if (source.containsKey(NEXT_CURSOR_HEADER)) {
+                    headers.put(NEXT_CURSOR_HEADER, source.get(NEXT_CURSOR_HEADER));
+                }
+            }
+
+            return new SearchResult(status, HttpHeaders.readOnlyHttpHeaders(headers), body);
+        }
+
+        ResponseEntity<Object> toResponseEntity() {
+            return ResponseEntity.status(status).headers(headers).body(body);
+        }
+    }
 }
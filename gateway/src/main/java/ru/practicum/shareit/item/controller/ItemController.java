@@ -1,13 +1,22 @@
 package ru.practicum.shareit.item.controller;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.client.ItemClient;
 import ru.practicum.shareit.item.comment.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.validation.ValidationMetrics;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 
 @RequiredArgsConstructor
@@ -16,6 +25,7 @@ import ru.practicum.shareit.item.dto.ItemDto;
 @RequestMapping("/items")
 public class ItemController {
     private final ItemClient itemClient;
+    private final ValidationMetrics validationMetrics;
 
     @PostMapping
     public ResponseEntity<Object> createItem(@RequestHeader("X-Sharer-User-Id") Long userId, @Valid @RequestBody ItemDto itemDto) {
@@ -23,6 +33,16 @@ public class ItemController {
         return itemClient.createItem(userId, itemDto);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> createItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                              @RequestBody
+                                              @NotEmpty(message = "Список вещей не указан")
+                                              @Size(max = 500, message = "Можно добавить не более 500 вещей за раз")
+                                              List<@Valid ItemDto> itemDtos) {
+        log.info("POST /items/batch, {} вещей", itemDtos.size());
+        return itemClient.createItems(userId, itemDtos);
+    }
+
     @PatchMapping("{itemId}")
     public ResponseEntity<Object> updateItem(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable("itemId") Long itemId, @RequestBody ItemDto itemDto) {
         log.info("PATCH /items/{}", itemId);
@@ -35,6 +55,17 @@ public class ItemController {
         return itemClient.findItemById(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> findAvailability(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                   @PathVariable("itemId") Long itemId,
+                                                   @RequestParam(required = false)
+                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                   @RequestParam(required = false)
+                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("GET /items/{}/availability", itemId);
+        return itemClient.findAvailability(userId, itemId, from, to);
+    }
+
     @GetMapping
     public ResponseEntity<Object> findUserItems(@RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("GET /items");
@@ -42,9 +73,21 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItem(@RequestHeader("X-Sharer-User-Id") Long userId, @RequestParam(name = "text") String text) {
+    public ResponseEntity<Object> searchItem(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                             @RequestParam(name = "text") String text,
+                                             @RequestParam(required = false) Long after,
+                                             @RequestParam(defaultValue = "0")
+                                             @PositiveOrZero(message = "Параметры пагинации указаны неверно") int from,
+                                             @RequestParam(required = false)
+                                             @Positive(message = "Параметры пагинации указаны неверно") Integer size) {
         log.info("GET /items/search?text={}.", text);
-        return itemClient.searchItem(userId, text);
+
+        if (text.isBlank()) {
+            validationMetrics.shortCircuited("searchItem.text.Blank");
+            return ResponseEntity.ok(List.of());
+        }
+
+        return itemClient.searchItem(userId, text, after, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
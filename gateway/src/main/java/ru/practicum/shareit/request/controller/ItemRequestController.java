@@ -1,5 +1,7 @@
 package ru.practicum.shareit.request.controller;
 
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -28,8 +30,10 @@ public class ItemRequestController {
 
     @GetMapping("/all")
     public ResponseEntity<Object> findListOfRequestsOtherUsers(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                               @RequestParam(defaultValue = "0") int from,
-                                                               @RequestParam(defaultValue = "10") int size) {
+                                                               @RequestParam(defaultValue = "0")
+                                                               @PositiveOrZero(message = "Параметры пагинации указаны неверно") int from,
+                                                               @RequestParam(defaultValue = "10")
+                                                               @Positive(message = "Параметры пагинации указаны неверно") int size) {
         log.info("GET /requests/all");
         return itemRequestClient.findListOfRequestsOtherUsers(userId, from, size);
     }
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.validation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Счетчики запросов, на которые шлюз ответил сам, не обращаясь к серверу.
+ */
+@Component
+@RequiredArgsConstructor
+public class ValidationMetrics {
+    public static final String REJECTED = "gateway.validation.rejected";
+    public static final String SHORT_CIRCUITED = "gateway.validation.short-circuited";
+
+    private final MeterRegistry meterRegistry;
+
+    public void rejected(String rule) {
+        Counter.builder(REJECTED)
+                .description("Запросы, отклоненные проверкой в шлюзе")
+                .tag("rule", rule)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void shortCircuited(String rule) {
+        Counter.builder(SHORT_CIRCUITED)
+                .description("Запросы, на которые шлюз ответил без обращения к серверу")
+                .tag("rule", rule)
+                .register(meterRegistry)
+                .increment();
+    }
+}
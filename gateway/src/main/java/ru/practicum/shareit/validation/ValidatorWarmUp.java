@@ -0,0 +1,34 @@
+package ru.practicum.shareit.validation;
+
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.item.comment.dto.CommentRequestDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.List;
+
+/**
+ * Строит метаданные ограничений DTO при старте, чтобы первый запрос не тратил на это время.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ValidatorWarmUp {
+    private static final List<Class<?>> VALIDATED_DTOS = List.of(BookingRequestDto.class, ItemDto.class,
+            UserDto.class, ItemRequestDto.class, CommentRequestDto.class);
+
+    private final Validator validator;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        VALIDATED_DTOS.forEach(validator::getConstraintsForClass);
+        log.debug("Метаданные проверки подготовлены для {}", VALIDATED_DTOS);
+    }
+}
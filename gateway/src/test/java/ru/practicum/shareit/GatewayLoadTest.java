@@ -0,0 +1,134 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Сравнивает шлюз на потоках платформы и на виртуальных потоках, когда каждый запрос ждет медленный сервер:
+ * сколько запросов шлюз одновременно держит открытыми и какую пропускную способность дает. Запуск: {@code mvn -Pload -pl gateway test}.
+ */
+@Slf4j
+@Tag("load")
+public class GatewayLoadTest {
+    private static final int CONCURRENT_REQUESTS = 600;
+    private static final int WARM_UP_REQUESTS = 100;
+    private static final int PLATFORM_THREADS = 200;
+    private static final int SERVER_DELAY_MILLIS = 5_000;
+    private static final byte[] USERS = "[{\"id\":1,\"name\":\"Макс Иванов\",\"email\":\"Max@mail.ru\"}]"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private static final AtomicInteger inFlight = new AtomicInteger();
+    private static final AtomicInteger peakInFlight = new AtomicInteger();
+
+    private static HttpServer server;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), CONCURRENT_REQUESTS);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/users", exchange -> {
+            peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+
+            try {
+                Thread.sleep(SERVER_DELAY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, USERS.length);
+
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(USERS);
+            }
+        });
+        server.start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void virtualThreadsShouldHoldMoreConcurrentRequestsThanPlatformThreads() throws Exception {
+        LoadResult platform = run(false);
+        LoadResult virtual = run(true);
+
+        log.info("Потоки платформы: {} запр/с, одновременно у сервера {}", Math.round(platform.throughput()),
+                platform.peakInFlight());
+        log.info("Виртуальные потоки: {} запр/с, одновременно у сервера {}", Math.round(virtual.throughput()),
+                virtual.peakInFlight());
+
+        assertThat(platform.peakInFlight()).isLessThanOrEqualTo(PLATFORM_THREADS);
+        assertThat(virtual.peakInFlight()).isGreaterThan(PLATFORM_THREADS);
+        assertThat(virtual.throughput()).isGreaterThan(platform.throughput());
+    }
+
+    private static LoadResult run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext gateway = new SpringApplicationBuilder(ShareItGateway.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--server.tomcat.threads.max=" + PLATFORM_THREADS,
+                        "--server.tomcat.accept-count=" + CONCURRENT_REQUESTS,
+                        "--shareit-server.url=http://localhost:" + server.getAddress().getPort(),
+                        "--shareit-server.http-client.max-total=" + CONCURRENT_REQUESTS,
+                        "--shareit-server.http-client.max-per-route=" + CONCURRENT_REQUESTS,
+                        "--shareit-server.http-client.connection-request-timeout=1m",
+                        "--logging.level.org.springframework.web.client.RestTemplate=INFO");
+             HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(Executors.newVirtualThreadPerTaskExecutor())
+                     .build()) {
+            URI uri = URI.create("http://localhost:" + gateway.getEnvironment().getProperty("local.server.port")
+                    + "/users");
+            HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+
+            sendConcurrently(client, request, WARM_UP_REQUESTS);
+
+            peakInFlight.set(0);
+            long started = System.nanoTime();
+            sendConcurrently(client, request, CONCURRENT_REQUESTS);
+
+            return new LoadResult(CONCURRENT_REQUESTS / ((System.nanoTime() - started) / 1e9), peakInFlight.get());
+        }
+    }
+
+    private static void sendConcurrently(HttpClient client, HttpRequest request, int count) throws Exception {
+        List<CompletableFuture<HttpResponse<Void>>> responses = IntStream.range(0, count)
+                .mapToObj(i -> client.sendAsync(request, HttpResponse.BodyHandlers.discarding()))
+                .toList();
+
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            assertThat(response.get().statusCode()).isEqualTo(200);
+        }
+    }
+
+    private record LoadResult(double throughput, int peakInFlight) {
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.client.BookingClient;
+import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.validation.ValidationMetrics;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(BookingController.class)
+@Import({ValidationMetrics.class, BookingControllerTest.Metrics.class})
+public class BookingControllerTest {
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @MockBean
+    private BookingClient bookingClient;
+
+    @Test
+    void bookingWithEndBeforeStartShouldBeRejectedWithoutServer() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(2).withNano(0);
+
+        mvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemId\":1,\"start\":\"" + start + "\",\"end\":\"" + start.minusDays(1) + "\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.description", is("Период указан неверно")));
+
+        verifyNoInteractions(bookingClient);
+        assertThat(meterRegistry.counter(ValidationMetrics.REJECTED, "rule", "bookingRequestDto.StartBeforeEnd")
+                .count()).isEqualTo(1);
+    }
+
+    @Test
+    void unknownStateShouldBeRejectedWithoutServer() throws Exception {
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("state", "UNSUPPORTED_STATUS"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.description", is("Значение параметра state указано неверно: UNSUPPORTED_STATUS")));
+
+        verifyNoInteractions(bookingClient);
+        assertThat(meterRegistry.counter(ValidationMetrics.REJECTED, "rule", "findUserBookings.state.TypeMismatch")
+                .count()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidPageSizeAndCursorShouldBeRejectedWithoutServer() throws Exception {
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("after", "вчера")
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookingClient);
+        assertThat(meterRegistry.counter(ValidationMetrics.REJECTED, "rule", "findOwnerReservedItems.size.Positive")
+                .count()).isEqualTo(1);
+        assertThat(meterRegistry.counter(ValidationMetrics.REJECTED, "rule", "findOwnerReservedItems.after.Pattern")
+                .count()).isEqualTo(1);
+    }
+
+    @Test
+    void emptyBatchDecisionShouldBeRejectedWithoutServer() throws Exception {
+        mvc.perform(patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"bookingIds\":[],\"approved\":true}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookingClient);
+        assertThat(meterRegistry.counter(ValidationMetrics.REJECTED, "rule",
+                "bookingDecisionRequestDto.bookingIds.NotEmpty").count()).isEqualTo(1);
+    }
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -71,6 +71,19 @@ public class BookingRequestDtoValidationTest {
         assertThat(violations).anyMatch(v -> v.getPropertyPath().toString().equals("end"));
     }
 
+    @Test
+    void mustFailWhenStartIsNotBeforeEnd() {
+        LocalDateTime start = LocalDateTime.now().plusDays(2);
+        BookingRequestDto dto = new BookingRequestDto(
+                1L,
+                start,
+                start
+        );
+
+        Set<ConstraintViolation<BookingRequestDto>> violations = validator.validate(dto);
+        assertThat(violations).anyMatch(v -> v.getMessage().equals("Период указан неверно"));
+    }
+
     @Test
     void mustPassValidation() {
         BookingRequestDto dto = new BookingRequestDto(
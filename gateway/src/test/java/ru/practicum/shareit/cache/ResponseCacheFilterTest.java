@@ -0,0 +1,107 @@
+package ru.practicum.shareit.cache;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResponseCacheFilterTest {
+    private ResponseCacheFilter filter;
+    private AtomicInteger calls;
+    private FilterChain chain;
+
+    @BeforeEach
+    void setUp() {
+        filter = new ResponseCacheFilter(new ResponseCacheProperties(true, 100, Duration.ofMinutes(1)));
+        calls = new AtomicInteger();
+        chain = (request, response) -> {
+            int call = calls.incrementAndGet();
+            ((HttpServletResponse) response).setHeader("X-Next-Cursor", "cursor" + call);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"call\":" + call + "}");
+        };
+    }
+
+    @Test
+    void repeatedGetShouldBeServedFromCache() throws Exception {
+        MockHttpServletResponse first = get("/items/1", "1", null);
+        MockHttpServletResponse second = get("/items/1", "1", null);
+
+        assertThat(calls).hasValue(1);
+        assertThat(second.getContentAsString()).isEqualTo(first.getContentAsString());
+        assertThat(second.getHeader("X-Next-Cursor")).isEqualTo("cursor1");
+        assertThat(second.getHeader(HttpHeaders.ETAG)).isEqualTo(first.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void differentUserShouldNotShareCachedResponse() throws Exception {
+        get("/items/1", "1", null);
+        get("/items/1", "2", null);
+
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void matchingEtagShouldReturnNotModified() throws Exception {
+        String etag = get("/requests/all", "1", null).getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletResponse response = get("/requests/all", "1", etag);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void bookingMutationShouldInvalidateOnlyItems() throws Exception {
+        get("/items", "1", null);
+        get("/requests", "1", null);
+
+        send("PATCH", "/bookings/1", 200);
+
+        assertThat(get("/items", "1", null).getContentAsString()).isEqualTo("{\"call\":4}");
+        assertThat(get("/requests", "1", null).getContentAsString()).isEqualTo("{\"call\":2}");
+    }
+
+    @Test
+    void failedMutationShouldKeepCache() throws Exception {
+        get("/users/1", "1", null);
+
+        send("DELETE", "/users/1", 404);
+        get("/users/1", "1", null);
+
+        assertThat(calls).hasValue(2);
+    }
+
+    private MockHttpServletResponse get(String uri, String userId, String ifNoneMatch) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.addHeader("X-Sharer-User-Id", userId);
+
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private void send(String method, String uri, int status) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.addHeader("X-Sharer-User-Id", "1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+            calls.incrementAndGet();
+            ((HttpServletResponse) res).setStatus(status);
+        });
+    }
+}
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+public class BaseClientTest {
+    private static final String ITEMS = "[{\"id\":1,\"name\":\"Дрель\"},{\"id\":2,\"name\":\"Отвертка\"}]";
+
+    private MockRestServiceServer server;
+    private TestClient client;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplate rest = new RestTemplate();
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory("http://localhost:9090/items"));
+        server = MockRestServiceServer.bindTo(rest).build();
+        client = new TestClient(rest);
+    }
+
+    @Test
+    void successfulResponseShouldBeStreamedWithoutParsing() throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Next-Cursor", "2");
+        server.expect(requestTo("http://localhost:9090/items/search?text=%D0%B4%D1%80%D0%B5%D0%BB%D1%8C"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header("X-Sharer-User-Id", "1"))
+                .andRespond(withSuccess(ITEMS, MediaType.APPLICATION_JSON).headers(headers));
+
+        ResponseEntity<Object> response = client.get("/search?text={text}", 1L, Map.of("text", "дрель"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getFirst("X-Next-Cursor")).isEqualTo("2");
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(response.getBody()).isInstanceOf(InputStreamResource.class);
+        assertThat(read(response)).isEqualTo(ITEMS);
+        server.verify();
+    }
+
+    @Test
+    void errorResponseShouldKeepStatusAndBody() throws Exception {
+        String error = "{\"error\":\"Вещь не найдена\"}";
+        server.expect(requestTo("http://localhost:9090/items/99"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON).body(error));
+
+        ResponseEntity<Object> response = client.get("/99", 1L);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(read(response)).isEqualTo(error);
+    }
+
+    @Test
+    void requestBodyShouldBeSerialized() {
+        server.expect(requestTo("http://localhost:9090/items"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE))
+                .andRespond(withStatus(HttpStatus.NO_CONTENT));
+
+        ResponseEntity<Object> response = client.post("", 1L, Map.of("name", "Дрель"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(response.hasBody()).isFalse();
+        server.verify();
+    }
+
+    private static String read(ResponseEntity<Object> response) throws Exception {
+        try (InputStream body = ((InputStreamResource) response.getBody()).getInputStream()) {
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static class TestClient extends BaseClient {
+        TestClient(RestTemplate rest) {
+            super(rest);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ServerHttpClientConfigTest {
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(ServerHttpClientConfig.class);
+
+    @Test
+    void poolShouldUseConfiguredLimits() {
+        contextRunner
+                .withPropertyValues("shareit-server.http-client.max-total=64",
+                        "shareit-server.http-client.max-per-route=32")
+                .run(context -> {
+                    PoolingHttpClientConnectionManager pool = context.getBean(PoolingHttpClientConnectionManager.class);
+
+                    assertThat(pool.getMaxTotal()).isEqualTo(64);
+                    assertThat(pool.getDefaultMaxPerRoute()).isEqualTo(32);
+                });
+    }
+
+    @Test
+    void poolUsageShouldBeExportedAsMetrics() {
+        contextRunner.run(context -> {
+            MeterRegistry registry = new SimpleMeterRegistry();
+            context.getBean(MeterBinder.class).bindTo(registry);
+
+            assertThat(registry.find("httpcomponents.httpclient.pool.total.max")
+                    .tag("httpclient", "shareit-server").gauge().value()).isEqualTo(200);
+            assertThat(registry.find("httpcomponents.httpclient.pool.total.pending").gauge()).isNotNull();
+        });
+    }
+}
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.client.MockServerRestTemplateCustomizer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import ru.practicum.shareit.cache.SearchCacheProperties;
+import ru.practicum.shareit.item.client.ItemClient;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpStatus.CREATED;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+public class ItemClientTest {
+    private static final String SEARCH = "http://localhost:9090/items/search?text=%s&from=0&size=10";
+    private static final String ITEMS = "[{\"id\":1,\"name\":\"Дрель\"}]";
+
+    private MockRestServiceServer server;
+    private MeterRegistry meterRegistry;
+    private ItemClient itemClient;
+
+    @BeforeEach
+    void setUp() {
+        MockServerRestTemplateCustomizer customizer = new MockServerRestTemplateCustomizer();
+        meterRegistry = new SimpleMeterRegistry();
+        itemClient = new ItemClient("http://localhost:9090", new RestTemplateBuilder(customizer),
+                new SimpleClientHttpRequestFactory(), new SearchCacheProperties(true, 100, Duration.ofMinutes(1)),
+                meterRegistry);
+        server = customizer.getServer();
+    }
+
+    @Test
+    void repeatedSearchShouldBeServedFromCacheForAnyUserAndCase() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Next-Cursor", "1");
+        server.expect(ExpectedCount.once(), requestTo(String.format(SEARCH, "%D0%94%D1%80%D0%B5%D0%BB%D1%8C")))
+                .andRespond(withSuccess(ITEMS, MediaType.APPLICATION_JSON).headers(headers));
+
+        itemClient.searchItem(1L, "Дрель", null, 0, 10);
+        ResponseEntity<Object> cached = itemClient.searchItem(2L, "дрЕЛЬ", null, 0, 10);
+
+        server.verify();
+        assertThat(new String((byte[]) cached.getBody(), StandardCharsets.UTF_8)).isEqualTo(ITEMS);
+        assertThat(cached.getHeaders().getFirst("X-Next-Cursor")).isEqualTo("1");
+        assertThat(cached.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(meterRegistry.get("gateway.search.cache.hit.ratio").gauge().value()).isEqualTo(0.5);
+        assertThat(meterRegistry.get("cache.size").tag("cache", "item-search").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void searchWithoutSizeShouldNotLimitServerResult() {
+        server.expect(requestTo("http://localhost:9090/items/search?text=drill&from=0"))
+                .andRespond(withSuccess(ITEMS, MediaType.APPLICATION_JSON));
+
+        ResponseEntity<Object> result = itemClient.searchItem(1L, "drill", null, 0, null);
+
+        server.verify();
+        assertThat(new String((byte[]) result.getBody(), StandardCharsets.UTF_8)).isEqualTo(ITEMS);
+    }
+
+    @Test
+    void createdItemShouldInvalidateCachedSearches() {
+        String search = String.format(SEARCH, "drill");
+        server.expect(requestTo(search)).andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+        server.expect(method(HttpMethod.POST)).andRespond(withStatus(CREATED)
+                .contentType(MediaType.APPLICATION_JSON).body("{\"id\":1}"));
+        server.expect(requestTo(search)).andRespond(withSuccess(ITEMS, MediaType.APPLICATION_JSON));
+
+        itemClient.searchItem(1L, "drill", null, 0, 10);
+        itemClient.createItem(1L, new ItemDto(null, "Drill", "Дрель", true, null));
+        ResponseEntity<Object> fresh = itemClient.searchItem(1L, "drill", null, 0, 10);
+
+        server.verify();
+        assertThat(new String((byte[]) fresh.getBody(), StandardCharsets.UTF_8)).isEqualTo(ITEMS);
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.client.ItemClient;
+import ru.practicum.shareit.item.controller.ItemController;
+import ru.practicum.shareit.validation.ValidationMetrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ItemController.class)
+@Import({ValidationMetrics.class, ItemControllerTest.Metrics.class})
+public class ItemControllerTest {
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @MockBean
+    private ItemClient itemClient;
+
+    @Test
+    void blankSearchShouldBeAnsweredWithoutServer() throws Exception {
+        mvc.perform(get("/items/search")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("text", "  "))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", empty()));
+
+        verifyNoInteractions(itemClient);
+        assertThat(meterRegistry.counter(ValidationMetrics.SHORT_CIRCUITED, "rule", "searchItem.text.Blank").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void negativePaginationShouldBeRejectedWithoutServer() throws Exception {
+        mvc.perform(get("/items/search")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("text", "дрель")
+                        .param("from", "-1")
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Неправильный, некорректный запрос")));
+
+        verifyNoInteractions(itemClient);
+        assertThat(meterRegistry.counter(ValidationMetrics.REJECTED, "rule", "searchItem.from.PositiveOrZero").count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.counter(ValidationMetrics.REJECTED, "rule", "searchItem.size.Positive").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void batchWithInvalidItemShouldBeRejectedWithoutServer() throws Exception {
+        mvc.perform(post("/items/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true},"
+                                + "{\"name\":\" \",\"description\":\"Без имени\",\"available\":true}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.description", is("Имя не может быть null")));
+
+        verifyNoInteractions(itemClient);
+    }
+
+    @Test
+    void emptyBatchShouldBeRejectedWithoutServer() throws Exception {
+        mvc.perform(post("/items/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.description", is("Список вещей не указан")));
+
+        verifyNoInteractions(itemClient);
+        assertThat(meterRegistry.counter(ValidationMetrics.REJECTED, "rule", "createItems.itemDtos.NotEmpty").count())
+                .isEqualTo(1);
+    }
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -2,10 +2,14 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionRequestDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.status.BookingState;
 
 import java.util.List;
 
@@ -28,6 +32,13 @@ public class BookingController {
         return bookingService.updateBooking(userId, bookingId, approved);
     }
 
+    @PatchMapping("/batch")
+    public List<BookingDecisionDto> updateBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                   @RequestBody BookingDecisionRequestDto decision) {
+        log.info("PATCH /bookings/batch");
+        return bookingService.updateBookings(userId, decision);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingResponseDto findBookingById(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable("bookingId") Long bookingId) {
         log.info("GET /bookings/{}", bookingId);
@@ -35,14 +46,20 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingResponseDto> findUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId, @RequestParam(name = "state", defaultValue = "ALL") String state) {
+    public ResponseEntity<List<BookingResponseDto>> findUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                     @RequestParam(name = "state", defaultValue = "ALL") BookingState state,
+                                                                     @RequestParam(required = false) String after,
+                                                                     @RequestParam(required = false) Integer size) {
         log.info("GET /bookings?state={}.", state);
-        return bookingService.findUserBookings(userId, state);
+        return bookingService.findUserBookings(userId, state, after, size).toResponseEntity();
     }
 
     @GetMapping("/owner")
-    public List<BookingResponseDto> findOwnerReservedItems(@RequestHeader("X-Sharer-User-Id") Long userId, @RequestParam(name = "state", defaultValue = "ALL") String state) {
+    public ResponseEntity<List<BookingResponseDto>> findOwnerReservedItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                           @RequestParam(name = "state", defaultValue = "ALL") BookingState state,
+                                                                           @RequestParam(required = false) String after,
+                                                                           @RequestParam(required = false) Integer size) {
         log.info("GET /bookings/owner?state={}.", state);
-        return bookingService.findOwnerReservedItems(userId, state);
+        return bookingService.findOwnerReservedItems(userId, state, after, size).toResponseEntity();
     }
 }
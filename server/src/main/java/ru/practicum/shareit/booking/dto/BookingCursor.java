@@ -0,0 +1,32 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+public record BookingCursor(LocalDateTime start, Long id) {
+    public static final BookingCursor FIRST = new BookingCursor(LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE);
+
+    public static BookingCursor parse(String value) {
+        if (value == null || value.isBlank()) {
+            return FIRST;
+        }
+
+        String[] parts = value.split(",");
+
+        try {
+            if (parts.length == 2) {
+                return new BookingCursor(LocalDateTime.parse(parts[0].trim()), Long.valueOf(parts[1].trim()));
+            }
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new ValidationException("Курсор пагинации указан неверно: " + value);
+        }
+
+        throw new ValidationException("Курсор пагинации указан неверно: " + value);
+    }
+
+    public static String format(BookingResponseDto booking) {
+        return booking.getStart() + "," + booking.getId();
+    }
+}
@@ -19,4 +19,14 @@ public class BookingResponseDto {
     private ItemDto item;
     private UserDto booker;
     private RentalStatus status;
+
+    public BookingResponseDto(Long id, LocalDateTime start, LocalDateTime end,
+                              Long itemId, String itemName, String itemDescription, Boolean itemAvailable,
+                              Long bookerId, String bookerName, String bookerEmail,
+                              RentalStatus status) {
+        this(id, start, end,
+                new ItemDto(itemId, itemName, itemDescription, itemAvailable, null),
+                new UserDto(bookerId, bookerName, bookerEmail),
+                status);
+    }
 }
@@ -44,7 +44,8 @@ public class BookingMapper {
                 bookingRequestDto.getEnd(),
                 item,
                 booker,
-                status
+                status,
+                null
         );
     }
 
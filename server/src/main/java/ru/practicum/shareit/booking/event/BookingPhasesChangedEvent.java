@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.event;
+
+import java.util.Collection;
+
+/**
+ * Бронирования {@code bookingIds} перешли в другую фазу. Публикуется в транзакции смены фаз.
+ */
+public record BookingPhasesChangedEvent(Collection<Long> bookingIds) {
+}
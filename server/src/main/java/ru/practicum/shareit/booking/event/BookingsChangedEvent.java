@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.event;
+
+import java.util.Set;
+
+/**
+ * Бронирования пользователей {@code userIds} созданы или изменили статус.
+ */
+public record BookingsChangedEvent(Set<Long> userIds) {
+}
@@ -0,0 +1,201 @@
+package ru.practicum.shareit.booking.lifecycle;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.event.BookingPhasesChangedEvent;
+import ru.practicum.shareit.booking.repository.BookingInterval;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.status.BookingPhase;
+import ru.practicum.shareit.util.TransactionHooks;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Переводит бронирования между фазами {@link BookingPhase} в моменты их начала и окончания.
+ * Переходы в пределах горизонта колеса ставятся в {@link TimingWheel} и применяются пачкой
+ * на каждом тике; раз в половину горизонта выполняется досрочная проверка базы, которая
+ * догоняет пропущенные переходы и загружает в колесо следующие.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(BookingLifecycleProperties.class)
+public class BookingLifecycle {
+    private static final int SWEEP_BATCH_SIZE = 1_000;
+
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BookingLifecycleProperties properties;
+    private final Clock clock;
+    private final long tickMillis;
+    private final Duration horizon;
+    private final TimingWheel<Transition> wheel;
+
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+    private long nextSweepTick;
+
+    public BookingLifecycle(BookingRepository bookingRepository, PlatformTransactionManager transactionManager,
+                            ApplicationEventPublisher eventPublisher, BookingLifecycleProperties properties,
+                            Clock clock) {
+        this.bookingRepository = bookingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.clock = clock;
+        this.tickMillis = properties.tick().toMillis();
+        this.horizon = properties.tick().multipliedBy(properties.wheelSize());
+        this.wheel = new TimingWheel<>(properties.wheelSize(), tickOf(LocalDateTime.now(clock)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.enabled() || running) {
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("booking-lifecycle").daemon().factory());
+        running = true;
+        sweep();
+        scheduler.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        log.info("Смена фаз бронирований запущена: тик {}, горизонт {}", properties.tick(), horizon);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Ставит в колесо переходы нового бронирования после коммита, если они попадают в горизонт.
+     */
+    public void track(Long bookingId, LocalDateTime start, LocalDateTime end) {
+        if (!running) {
+            return;
+        }
+
+        TransactionHooks.afterCommit(() -> schedule(bookingId, start, end, LocalDateTime.now(clock).plus(horizon)));
+    }
+
+    void advance() {
+        try {
+            LocalDateTime now = LocalDateTime.now(clock);
+            long tick = tickOf(now);
+            apply(wheel.advance(tick), now);
+
+            if (tick >= nextSweepTick) {
+                sweep();
+            }
+        } catch (RuntimeException e) {
+            log.error("Не удалось сменить фазы бронирований", e);
+        }
+    }
+
+    /**
+     * Догоняет переходы, которые колесо не видело (новые строки других экземпляров, простой),
+     * и загружает переходы на следующий горизонт.
+     */
+    void sweep() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime until = now.plus(horizon);
+
+        int changed = transactionTemplate.execute(status -> inBatches(bookingRepository.findStartedIds(now),
+                batch -> bookingRepository.activateBookings(batch, now))
+                + inBatches(bookingRepository.findEndedIds(now), batch -> bookingRepository.finishBookings(batch, now)));
+
+        List<BookingInterval> starting = bookingRepository.findStartingBetween(now, until);
+        List<BookingInterval> ending = bookingRepository.findEndingBetween(now, until);
+
+        starting.forEach(booking -> schedule(booking.getId(), booking.getStart(), booking.getEnd(), until));
+        ending.forEach(booking -> wheel.schedule(new Transition(booking.getId(), BookingPhase.FINISHED),
+                finishTickOf(booking.getEnd())));
+
+        nextSweepTick = tickOf(now) + Math.max(1, properties.wheelSize() / 2);
+        log.debug("Фазы бронирований сверены: изменено {}, в колесе {} начал и {} окончаний",
+                changed, starting.size(), ending.size());
+    }
+
+    private void schedule(Long bookingId, LocalDateTime start, LocalDateTime end, LocalDateTime until) {
+        if (start.isBefore(until)) {
+            wheel.schedule(new Transition(bookingId, BookingPhase.ACTIVE), tickOf(start) + 1);
+        }
+        if (end.isBefore(until)) {
+            wheel.schedule(new Transition(bookingId, BookingPhase.FINISHED), finishTickOf(end));
+        }
+    }
+
+    private void apply(List<Transition> due, LocalDateTime now) {
+        if (due.isEmpty()) {
+            return;
+        }
+
+        Map<BookingPhase, List<Long>> ids = due.stream().collect(Collectors.groupingBy(Transition::phase,
+                Collectors.mapping(Transition::bookingId, Collectors.toList())));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (ids.containsKey(BookingPhase.ACTIVE)) {
+                bookingRepository.activateBookings(ids.get(BookingPhase.ACTIVE), now);
+            }
+            if (ids.containsKey(BookingPhase.FINISHED)) {
+                bookingRepository.finishBookings(ids.get(BookingPhase.FINISHED), now);
+            }
+
+            eventPublisher.publishEvent(new BookingPhasesChangedEvent(due.stream()
+                    .map(Transition::bookingId)
+                    .distinct()
+                    .toList()));
+        });
+    }
+
+    /**
+     * Меняет фазы пачками, чтобы после простоя списки id в запросах и событиях оставались ограниченными.
+     */
+    private int inBatches(List<Long> ids, ToIntFunction<List<Long>> update) {
+        int changed = 0;
+
+        for (int from = 0; from < ids.size(); from += SWEEP_BATCH_SIZE) {
+            List<Long> batch = List.copyOf(ids.subList(from, Math.min(ids.size(), from + SWEEP_BATCH_SIZE)));
+            int updated = update.applyAsInt(batch);
+
+            if (updated > 0) {
+                eventPublisher.publishEvent(new BookingPhasesChangedEvent(batch));
+            }
+
+            changed += updated;
+        }
+
+        return changed;
+    }
+
+    private long tickOf(LocalDateTime time) {
+        return time.atZone(clock.getZone()).toInstant().toEpochMilli() / tickMillis;
+    }
+
+    private long finishTickOf(LocalDateTime end) {
+        return tickOf(end) + 1;
+    }
+
+    private record Transition(Long bookingId, BookingPhase phase) {
+    }
+}
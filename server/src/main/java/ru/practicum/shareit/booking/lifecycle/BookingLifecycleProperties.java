@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.lifecycle;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "shareit.booking.lifecycle")
+public record BookingLifecycleProperties(@DefaultValue("true") boolean enabled,
+                                         @DefaultValue("1s") Duration tick,
+                                         @DefaultValue("600") int wheelSize) {
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.booking.lifecycle;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Хешированное колесо времени: задача попадает в ячейку {@code tick % size} и хранит свой тик,
+ * поэтому постановка и выборка на каждом шаге не зависят от общего числа задач.
+ */
+class TimingWheel<T> {
+    private final List<Map<T, Long>> slots;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long currentTick;
+
+    TimingWheel(int size, long startTick) {
+        this.slots = new ArrayList<>(size);
+        this.currentTick = startTick;
+
+        for (int i = 0; i < size; i++) {
+            slots.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Ставит задачу на тик {@code deadlineTick}; просроченная задача выполнится на ближайшем шаге.
+     */
+    void schedule(T task, long deadlineTick) {
+        lock.lock();
+        try {
+            long tick = Math.max(deadlineTick, currentTick + 1);
+            slots.get(slotOf(tick)).put(task, tick);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Продвигает колесо до тика {@code tick} включительно и возвращает наступившие задачи.
+     */
+    List<T> advance(long tick) {
+        List<T> due = new ArrayList<>();
+
+        lock.lock();
+        try {
+            long last = Math.min(tick, currentTick + slots.size());
+
+            while (currentTick < last) {
+                currentTick++;
+                Iterator<Map.Entry<T, Long>> entries = slots.get(slotOf(currentTick)).entrySet().iterator();
+
+                while (entries.hasNext()) {
+                    Map.Entry<T, Long> entry = entries.next();
+
+                    if (entry.getValue() <= tick) {
+                        due.add(entry.getKey());
+                        entries.remove();
+                    }
+                }
+            }
+
+            currentTick = Math.max(currentTick, tick);
+        } finally {
+            lock.unlock();
+        }
+
+        return due;
+    }
+
+    private int slotOf(long tick) {
+        return (int) Math.floorMod(tick, (long) slots.size());
+    }
+}
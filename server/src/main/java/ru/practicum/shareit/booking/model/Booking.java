@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import ru.practicum.shareit.booking.status.BookingPhase;
 import ru.practicum.shareit.booking.status.RentalStatus;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
@@ -16,7 +17,8 @@ import java.time.LocalDateTime;
 @Table(name = "bookings")
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
     @Column(name = "start_date")
     private LocalDateTime start;
@@ -30,4 +32,7 @@ public class Booking {
     private User booker;
     @Enumerated(EnumType.STRING)
     private RentalStatus status;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BookingPhase phase;
 }
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.status.RentalStatus;
+
+import java.time.LocalDateTime;
+
+public interface BookingDecisionCandidate {
+    Long getId();
+
+    RentalStatus getStatus();
+
+    Long getOwnerId();
+
+    Long getItemId();
+
+    Long getBookerId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+}
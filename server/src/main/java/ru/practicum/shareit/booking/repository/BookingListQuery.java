@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@FunctionalInterface
+public interface BookingListQuery {
+    List<BookingResponseDto> find(User user, LocalDateTime start, Long id, Limit limit);
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.booking.repository;
+
+public interface BookingParticipants {
+    Long getBookerId();
+
+    Long getOwnerId();
+}
@@ -1,49 +1,159 @@
 package ru.practicum.shareit.booking.repository;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.status.BookingPhase;
 import ru.practicum.shareit.booking.status.RentalStatus;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    @Query("SELECT b FROM Booking AS b WHERE b.booker = :booker AND CURRENT_TIMESTAMP BETWEEN b.start AND b.end")
-    List<Booking> findCurrentBookings(@Param("booker") User booker, Sort sort);
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingResponseDto(b.id, b.start, b.end, " +
+            "i.id, i.name, i.description, i.available, u.id, u.name, u.email, b.status) " +
+            "FROM Booking AS b JOIN b.item AS i JOIN b.booker AS u " +
+            "WHERE u = :booker AND b.phase = :phase " +
+            "AND (b.start, b.id) < (:start, :id) ORDER BY b.start DESC, b.id DESC")
+    List<BookingResponseDto> findByBookerAndPhase(@Param("booker") User booker, @Param("phase") BookingPhase phase,
+                                        @Param("start") LocalDateTime start, @Param("id") Long id, Limit limit);
 
-    @Query("SELECT b FROM Booking AS b WHERE b.booker = :booker AND b.end < CURRENT_TIMESTAMP")
-    List<Booking> findPastBookings(@Param("booker") User booker, Sort sort);
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingResponseDto(b.id, b.start, b.end, " +
+            "i.id, i.name, i.description, i.available, u.id, u.name, u.email, b.status) " +
+            "FROM Booking AS b JOIN b.item AS i JOIN b.booker AS u " +
+            "WHERE u = :booker AND b.status = :status " +
+            "AND (b.start, b.id) < (:start, :id) ORDER BY b.start DESC, b.id DESC")
+    List<BookingResponseDto> findByBookerAndStatus(@Param("booker") User booker, @Param("status") RentalStatus status,
+                                        @Param("start") LocalDateTime start, @Param("id") Long id, Limit limit);
 
-    @Query("SELECT b FROM Booking AS b WHERE b.booker = :booker AND b.start > CURRENT_TIMESTAMP")
-    List<Booking> findFutureBookings(@Param("booker") User booker, Sort sort);
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingResponseDto(b.id, b.start, b.end, " +
+            "i.id, i.name, i.description, i.available, u.id, u.name, u.email, b.status) " +
+            "FROM Booking AS b JOIN b.item AS i JOIN b.booker AS u " +
+            "WHERE u = :booker " +
+            "AND (b.start, b.id) < (:start, :id) ORDER BY b.start DESC, b.id DESC")
+    List<BookingResponseDto> findByBooker(@Param("booker") User booker,
+                               @Param("start") LocalDateTime start, @Param("id") Long id, Limit limit);
 
-    List<Booking> findByBookerAndStatus(User booker, RentalStatus status, Sort sort);
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingResponseDto(b.id, b.start, b.end, " +
+            "i.id, i.name, i.description, i.available, u.id, u.name, u.email, b.status) " +
+            "FROM Booking AS b JOIN b.item AS i JOIN b.booker AS u " +
+            "WHERE i.owner = :owner AND b.phase = :phase " +
+            "AND (b.start, b.id) < (:start, :id) ORDER BY b.start DESC, b.id DESC")
+    List<BookingResponseDto> findByItemOwnerAndPhase(@Param("owner") User owner, @Param("phase") BookingPhase phase,
+                                          @Param("start") LocalDateTime start, @Param("id") Long id, Limit limit);
 
-    List<Booking> findByBooker(User booker, Sort sort);
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingResponseDto(b.id, b.start, b.end, " +
+            "i.id, i.name, i.description, i.available, u.id, u.name, u.email, b.status) " +
+            "FROM Booking AS b JOIN b.item AS i JOIN b.booker AS u " +
+            "WHERE i.owner = :owner AND b.status = :status " +
+            "AND (b.start, b.id) < (:start, :id) ORDER BY b.start DESC, b.id DESC")
+    List<BookingResponseDto> findByItemOwnerAndStatus(@Param("owner") User owner, @Param("status") RentalStatus status,
+                                           @Param("start") LocalDateTime start, @Param("id") Long id, Limit limit);
 
-    @Query("SELECT b FROM Booking AS b WHERE b.item.owner = :owner AND CURRENT_TIMESTAMP BETWEEN b.start AND b.end")
-    List<Booking> findCurrentItemsBookings(@Param("owner") User owner, Sort sort);
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingResponseDto(b.id, b.start, b.end, " +
+            "i.id, i.name, i.description, i.available, u.id, u.name, u.email, b.status) " +
+            "FROM Booking AS b JOIN b.item AS i JOIN b.booker AS u " +
+            "WHERE i.owner = :owner " +
+            "AND (b.start, b.id) < (:start, :id) ORDER BY b.start DESC, b.id DESC")
+    List<BookingResponseDto> findByItemOwner(@Param("owner") User owner,
+                                  @Param("start") LocalDateTime start, @Param("id") Long id, Limit limit);
 
-    @Query("SELECT b FROM Booking AS b WHERE b.item.owner = :owner AND b.end < CURRENT_TIMESTAMP")
-    List<Booking> findPastItemsBookings(@Param("owner") User owner, Sort sort);
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    Optional<Booking> findWithItemAndBookerById(Long id);
 
-    @Query("SELECT b FROM Booking AS b WHERE b.item.owner = :owner AND b.start > CURRENT_TIMESTAMP")
-    List<Booking> findFutureItemsBookings(@Param("owner") User owner, Sort sort);
+    /**
+     * Блокирует только строки бронирований, в порядке id; вещи владельца остаются доступными для записи.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b.id FROM Booking AS b WHERE b.id IN :ids ORDER BY b.id")
+    List<Long> lockByIds(@Param("ids") Collection<Long> ids);
 
-    List<Booking> findByItemOwnerAndStatus(User owner, RentalStatus status, Sort sort);
+    @Query("SELECT b.id AS id, b.status AS status, i.owner.id AS ownerId, i.id AS itemId, " +
+            "b.booker.id AS bookerId, b.start AS start, b.end AS end FROM Booking AS b JOIN b.item AS i WHERE b.id IN :ids")
+    List<BookingDecisionCandidate> findDecisionCandidates(@Param("ids") Collection<Long> ids);
 
-    @Query("SELECT b FROM Booking AS b WHERE b.item.owner = :owner")
-    List<Booking> findByItemOwner(@Param("owner") User owner, Sort sort);
+    @Modifying
+    @Query("UPDATE Booking AS b SET b.status = :status " +
+            "WHERE b.id IN :ids AND b.status = ru.practicum.shareit.booking.status.RentalStatus.WAITING " +
+            "AND b.item.id IN (SELECT i.id FROM Item AS i WHERE i.owner.id = :ownerId)")
+    int decideWaitingBookings(@Param("ids") Collection<Long> ids, @Param("ownerId") Long ownerId,
+                              @Param("status") RentalStatus status);
 
-    Booking findFirstByBookerIdAndItemIdAndEndIsBefore(Long bookerId, Long itemId, LocalDateTime end, Sort sort);
+    @Query("SELECT b.id AS id, b.start AS start, b.end AS end FROM Booking AS b " +
+            "WHERE b.item.id = :itemId AND b.status = ru.practicum.shareit.booking.status.RentalStatus.APPROVED " +
+            "AND b.end > :now")
+    List<BookingInterval> findApprovedIntervals(@Param("itemId") Long itemId, @Param("now") LocalDateTime now);
+
+    @Query("SELECT b.id AS id, b.start AS start, b.end AS end FROM Booking AS b " +
+            "WHERE b.item.id = :itemId AND b.status = ru.practicum.shareit.booking.status.RentalStatus.APPROVED " +
+            "AND b.start < :to AND b.end > :from ORDER BY b.start, b.id")
+    List<BookingInterval> findApprovedIntervalsBetween(@Param("itemId") Long itemId,
+                                                       @Param("from") LocalDateTime from,
+                                                       @Param("to") LocalDateTime to);
+
+    @Query("SELECT b.item.id AS itemId, b.id AS id, b.start AS start, b.end AS end FROM Booking AS b " +
+            "WHERE b.item.id IN :itemIds AND b.status = ru.practicum.shareit.booking.status.RentalStatus.APPROVED " +
+            "AND b.start < :to AND b.end > :from ORDER BY b.item.id, b.start, b.id")
+    List<ItemBookingInterval> findApprovedIntervalsByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                                             @Param("from") LocalDateTime from,
+                                                             @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("UPDATE Booking AS b SET b.phase = ru.practicum.shareit.booking.status.BookingPhase.ACTIVE " +
+            "WHERE b.phase = ru.practicum.shareit.booking.status.BookingPhase.UPCOMING " +
+            "AND b.start <= :now AND b.end >= :now AND b.id IN :ids")
+    int activateBookings(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Booking AS b SET b.phase = ru.practicum.shareit.booking.status.BookingPhase.FINISHED " +
+            "WHERE b.phase IN (ru.practicum.shareit.booking.status.BookingPhase.UPCOMING, " +
+            "ru.practicum.shareit.booking.status.BookingPhase.ACTIVE) AND b.end < :now AND b.id IN :ids")
+    int finishBookings(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Query("SELECT b.id FROM Booking AS b " +
+            "WHERE b.phase = ru.practicum.shareit.booking.status.BookingPhase.UPCOMING " +
+            "AND b.start <= :now AND b.end >= :now")
+    List<Long> findStartedIds(@Param("now") LocalDateTime now);
+
+    @Query("SELECT b.id FROM Booking AS b " +
+            "WHERE b.phase IN (ru.practicum.shareit.booking.status.BookingPhase.UPCOMING, " +
+            "ru.practicum.shareit.booking.status.BookingPhase.ACTIVE) AND b.end < :now")
+    List<Long> findEndedIds(@Param("now") LocalDateTime now);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.id IN :itemIds AND b.end <= CURRENT_TIMESTAMP")
-    List<Booking> findLastBookingsForItems(@Param("itemIds") List<Long> itemIds, Sort sort);
+    @Query("SELECT b.id AS id, b.start AS start, b.end AS end FROM Booking AS b " +
+            "WHERE b.phase = ru.practicum.shareit.booking.status.BookingPhase.UPCOMING " +
+            "AND b.start > :from AND b.start <= :until")
+    List<BookingInterval> findStartingBetween(@Param("from") LocalDateTime from, @Param("until") LocalDateTime until);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.id IN :itemIds AND b.start >= CURRENT_TIMESTAMP")
-    List<Booking> findNextBookingsForItems(@Param("itemIds") List<Long> itemIds, Sort sort);
+    @Query("SELECT b.id AS id, b.start AS start, b.end AS end FROM Booking AS b " +
+            "WHERE b.phase = ru.practicum.shareit.booking.status.BookingPhase.ACTIVE " +
+            "AND b.end >= :from AND b.end < :until")
+    List<BookingInterval> findEndingBetween(@Param("from") LocalDateTime from, @Param("until") LocalDateTime until);
+
+    @Query("SELECT b.booker.id AS bookerId, i.owner.id AS ownerId FROM Booking AS b JOIN b.item AS i " +
+            "WHERE b.id IN :ids")
+    List<BookingParticipants> findParticipants(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT DISTINCT b.booker.id FROM Booking AS b WHERE b.item.id = :itemId")
+    List<Long> findBookerIdsByItemId(@Param("itemId") Long itemId);
+
+    @Query("SELECT DISTINCT i.owner.id FROM Booking AS b JOIN b.item AS i WHERE b.booker.id = :bookerId")
+    List<Long> findItemOwnerIdsByBookerId(@Param("bookerId") Long bookerId);
+
+    @Query("SELECT DISTINCT b.item.id FROM Booking AS b WHERE b.id IN :ids " +
+            "AND b.status = ru.practicum.shareit.booking.status.RentalStatus.APPROVED")
+    List<Long> findApprovedItemIds(@Param("ids") Collection<Long> ids);
+
+    Booking findFirstByBookerIdAndItemIdAndEndIsBefore(Long bookerId, Long itemId, LocalDateTime end, Sort sort);
 }
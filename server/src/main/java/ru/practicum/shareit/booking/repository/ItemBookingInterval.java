@@ -0,0 +1,5 @@
+package ru.practicum.shareit.booking.repository;
+
+public interface ItemBookingInterval extends BookingInterval {
+    Long getItemId();
+}
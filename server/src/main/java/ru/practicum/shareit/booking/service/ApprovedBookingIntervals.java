@@ -0,0 +1,330 @@
+package ru.practicum.shareit.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingPeriodDto;
+import ru.practicum.shareit.booking.repository.BookingDecisionCandidate;
+import ru.practicum.shareit.booking.repository.BookingInterval;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingInterval;
+import ru.practicum.shareit.util.TransactionHooks;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Подтвержденные бронирования часто запрашиваемых вещей, упорядоченные по началу периода.
+ * Периоды одной вещи не пересекаются, поэтому для проверки пересечения достаточно одного
+ * соседа слева — O(log n); {@link #isFree} при создании бронирования отвечает из кэша.
+ * <p>
+ * Подтверждения других экземпляров сюда не приходят, поэтому запись живет не дольше
+ * {@code shareit.booking.intervals.ttl}, а {@link #reserve} читает из базы только окно
+ * подтверждаемого периода и накладывает на него незакоммиченные резервы этого экземпляра.
+ * Вещь с незакоммиченным резервом закреплена и не вытесняется до завершения транзакции.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(BookingIntervalProperties.class)
+public class ApprovedBookingIntervals {
+    private final BookingRepository bookingRepository;
+    private final Clock clock;
+    private final Cache<Long, ItemIntervals> items;
+    private final ConcurrentMap<Long, ItemIntervals> pinned = new ConcurrentHashMap<>();
+
+    public ApprovedBookingIntervals(BookingRepository bookingRepository, BookingIntervalProperties properties,
+                                    Clock clock) {
+        this.bookingRepository = bookingRepository;
+        this.clock = clock;
+        this.items = Caffeine.newBuilder()
+                .maximumSize(properties.maxItems())
+                .expireAfterWrite(properties.ttl())
+                .build();
+    }
+
+    /**
+     * Проверяет, что период [start, end) не пересекается с подтвержденными бронированиями вещи.
+     */
+    public boolean isFree(Long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemIntervals intervals = intervals(itemId);
+
+        intervals.lock.lock();
+        try {
+            if (!intervals.loaded) {
+                intervals.reload(bookingRepository.findApprovedIntervals(itemId, LocalDateTime.now(clock)));
+            }
+
+            return !intervals.overlaps(start, end);
+        } finally {
+            intervals.lock.unlock();
+        }
+    }
+
+    /**
+     * Занимает период подтверждаемого бронирования, если он свободен. Если транзакция
+     * откатится, период освобождается.
+     */
+    public boolean reserve(Long itemId, Long bookingId, LocalDateTime start, LocalDateTime end) {
+        return reserve(List.of(new Request(bookingId, itemId, start, end))).contains(bookingId);
+    }
+
+    /**
+     * Занимает периоды пачки бронирований и возвращает id тех, что поместились. Подтвержденные
+     * бронирования всех вещей пачки читаются одним запросом, дальше проверка идет в памяти,
+     * в том числе между бронированиями самой пачки.
+     */
+    public Set<Long> reserveAll(Collection<BookingDecisionCandidate> candidates) {
+        return reserve(candidates.stream()
+                .map(candidate -> new Request(candidate.getId(), candidate.getItemId(),
+                        candidate.getStart(), candidate.getEnd()))
+                .toList());
+    }
+
+    /**
+     * Вещи блокируются в порядке id до чтения базы: резерв, закоммиченный и снятый с вещи
+     * после чтения, иначе не попал бы ни в окно, ни в незакоммиченные резервы.
+     */
+    private Set<Long> reserve(List<Request> requests) {
+        if (requests.isEmpty()) {
+            return Set.of();
+        }
+
+        SortedMap<Long, List<Request>> byItem = requests.stream()
+                .collect(Collectors.groupingBy(Request::itemId, TreeMap::new, Collectors.toList()));
+        LocalDateTime from = requests.stream().map(Request::start).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime to = requests.stream().map(Request::end).max(Comparator.naturalOrder()).orElseThrow();
+        Map<Long, ItemIntervals> locked = new LinkedHashMap<>();
+        Set<Long> reservedItems = new HashSet<>();
+        Set<Long> reserved = new HashSet<>();
+
+        try {
+            byItem.keySet().forEach(itemId -> locked.put(itemId, pin(itemId)));
+            locked.values().forEach(intervals -> intervals.lock.lock());
+            try {
+                Map<Long, List<ItemBookingInterval>> committed = bookingRepository
+                        .findApprovedIntervalsByItemIds(byItem.keySet(), from, to).stream()
+                        .collect(Collectors.groupingBy(ItemBookingInterval::getItemId));
+
+                byItem.forEach((itemId, itemRequests) -> {
+                    ItemIntervals intervals = locked.get(itemId);
+                    List<Request> accepted = intervals.reserve(itemRequests,
+                            committed.getOrDefault(itemId, List.of()));
+
+                    if (!accepted.isEmpty()) {
+                        reservedItems.add(itemId);
+                        accepted.forEach(request -> reserved.add(request.bookingId()));
+                        registerHooks(itemId, intervals, accepted);
+                    }
+                });
+            } finally {
+                locked.values().forEach(intervals -> intervals.lock.unlock());
+            }
+        } finally {
+            locked.keySet().stream()
+                    .filter(itemId -> !reservedItems.contains(itemId))
+                    .forEach(this::unpin);
+        }
+
+        return reserved;
+    }
+
+    private void registerHooks(Long itemId, ItemIntervals intervals, List<Request> accepted) {
+        for (Request request : accepted) {
+            TransactionHooks.onRollback(this, request.bookingId(),
+                    () -> intervals.release(request.start(), request.bookingId()));
+        }
+        TransactionHooks.afterCompletion(() -> {
+            accepted.forEach(request -> intervals.settle(request.bookingId()));
+            unpin(itemId);
+        });
+    }
+
+    /**
+     * Возвращает занятые периоды вещи внутри [from, to): соприкасающиеся бронирования
+     * склеиваются, края обрезаются по границам запроса. Окно читается из базы мимо кэша,
+     * чтобы календарь видел подтверждения других экземпляров сразу.
+     */
+    public List<BookingPeriodDto> busy(Long itemId, LocalDateTime from, LocalDateTime to) {
+        List<BookingPeriodDto> busy = new ArrayList<>();
+
+        for (BookingInterval booking : bookingRepository.findApprovedIntervalsBetween(itemId, from, to)) {
+            LocalDateTime start = booking.getStart().isBefore(from) ? from : booking.getStart();
+            LocalDateTime end = booking.getEnd().isAfter(to) ? to : booking.getEnd();
+            BookingPeriodDto last = busy.isEmpty() ? null : busy.get(busy.size() - 1);
+
+            if (last != null && !start.isAfter(last.getEnd())) {
+                if (end.isAfter(last.getEnd())) {
+                    last.setEnd(end);
+                }
+            } else if (start.isBefore(end)) {
+                busy.add(new BookingPeriodDto(start, end));
+            }
+        }
+
+        return busy;
+    }
+
+    private ItemIntervals intervals(Long itemId) {
+        ItemIntervals intervals = pinned.get(itemId);
+
+        return intervals != null ? intervals : items.get(itemId, this::load);
+    }
+
+    /**
+     * Закрепляет периоды вещи, не загружая их: для резерва достаточно окна из базы.
+     */
+    private ItemIntervals pin(Long itemId) {
+        ItemIntervals cached = items.getIfPresent(itemId);
+
+        return pinned.compute(itemId, (id, current) -> {
+            ItemIntervals intervals = current != null ? current : cached != null ? cached : new ItemIntervals();
+            intervals.pins++;
+            return intervals;
+        });
+    }
+
+    /**
+     * Последний откреп возвращает периоды в кэш: загруженная за время транзакции копия
+     * могла не видеть резерв, который к этому моменту уже закоммичен. Незагруженные
+     * периоды знают только окна резервов, поэтому кэш вещи просто сбрасывается.
+     */
+    private void unpin(Long itemId) {
+        pinned.computeIfPresent(itemId, (id, intervals) -> {
+            if (--intervals.pins > 0) {
+                return intervals;
+            }
+
+            if (intervals.loaded) {
+                items.put(id, intervals);
+            } else {
+                items.invalidate(id);
+            }
+            return null;
+        });
+    }
+
+    private ItemIntervals load(Long itemId) {
+        ItemIntervals intervals = new ItemIntervals();
+        intervals.reload(bookingRepository.findApprovedIntervals(itemId, LocalDateTime.now(clock)));
+
+        log.debug("Загружены подтвержденные бронирования вещи {}: {}", itemId, intervals.byStart.size());
+        return intervals;
+    }
+
+    private record Interval(Long bookingId, LocalDateTime end) {
+    }
+
+    private record Reservation(LocalDateTime start, Interval interval) {
+    }
+
+    private record Request(Long bookingId, Long itemId, LocalDateTime start, LocalDateTime end) {
+    }
+
+    private static LocalDateTime later(LocalDateTime left, LocalDateTime right) {
+        return left.isAfter(right) ? left : right;
+    }
+
+    private static class ItemIntervals {
+        private final NavigableMap<LocalDateTime, Interval> byStart = new TreeMap<>();
+        private final Map<Long, Reservation> pending = new HashMap<>();
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile boolean loaded;
+        private int pins;
+
+        boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            Map.Entry<LocalDateTime, Interval> previous = byStart.lowerEntry(end);
+
+            return previous != null && previous.getValue().end().isAfter(start);
+        }
+
+        /**
+         * Занимает периоды, которые не пересекаются ни с подтвержденными в базе бронированиями
+         * окна {@code committed}, ни с незакоммиченными резервами этого экземпляра, ни друг с другом.
+         */
+        List<Request> reserve(List<Request> requests, List<? extends BookingInterval> committed) {
+            NavigableMap<LocalDateTime, LocalDateTime> taken = new TreeMap<>();
+            List<Request> accepted = new ArrayList<>();
+
+            for (BookingInterval booking : committed) {
+                add(booking.getStart(), new Interval(booking.getId(), booking.getEnd()));
+                taken.merge(booking.getStart(), booking.getEnd(), ApprovedBookingIntervals::later);
+            }
+            for (Reservation reservation : pending.values()) {
+                taken.merge(reservation.start(), reservation.interval().end(), ApprovedBookingIntervals::later);
+            }
+
+            for (Request request : requests) {
+                Map.Entry<LocalDateTime, LocalDateTime> previous = taken.lowerEntry(request.end());
+
+                if (previous != null && previous.getValue().isAfter(request.start())) {
+                    continue;
+                }
+
+                Interval interval = new Interval(request.bookingId(), request.end());
+                pending.put(request.bookingId(), new Reservation(request.start(), interval));
+                add(request.start(), interval);
+                taken.put(request.start(), request.end());
+                accepted.add(request);
+            }
+
+            return accepted;
+        }
+
+        void add(LocalDateTime start, Interval interval) {
+            byStart.merge(start, interval, (left, right) -> left.end().isAfter(right.end()) ? left : right);
+        }
+
+        /**
+         * Заменяет периоды подтвержденными в базе и добавляет незакоммиченные резервы этого экземпляра.
+         */
+        void reload(List<BookingInterval> approved) {
+            byStart.clear();
+
+            for (BookingInterval booking : approved) {
+                add(booking.getStart(), new Interval(booking.getId(), booking.getEnd()));
+            }
+            for (Reservation reservation : pending.values()) {
+                add(reservation.start(), reservation.interval());
+            }
+            loaded = true;
+        }
+
+        void settle(Long bookingId) {
+            lock.lock();
+            try {
+                pending.remove(bookingId);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void release(LocalDateTime start, Long bookingId) {
+            lock.lock();
+            try {
+                pending.remove(bookingId);
+                byStart.computeIfPresent(start,
+                        (key, interval) -> interval.bookingId().equals(bookingId) ? null : interval);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
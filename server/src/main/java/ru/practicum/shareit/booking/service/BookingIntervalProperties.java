@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "shareit.booking.intervals")
+public record BookingIntervalProperties(@DefaultValue("10000") long maxItems,
+                                        @DefaultValue("1m") Duration ttl) {
+}
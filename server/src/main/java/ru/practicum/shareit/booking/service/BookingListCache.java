@@ -0,0 +1,193 @@
+package ru.practicum.shareit.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.event.BookingPhasesChangedEvent;
+import ru.practicum.shareit.booking.event.BookingsChangedEvent;
+import ru.practicum.shareit.booking.repository.BookingParticipants;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.status.BookingRole;
+import ru.practicum.shareit.booking.status.BookingState;
+import ru.practicum.shareit.item.event.ItemUpdatedEvent;
+import ru.practicum.shareit.pagination.CursorSlice;
+import ru.practicum.shareit.user.event.UserUpdatedEvent;
+import ru.practicum.shareit.util.TransactionHooks;
+
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Страницы списков бронирований по ключу (роль, пользователь, состояние, курсор, размер).
+ * Затронутые пользователи вычисляются в транзакции, вызвавшей событие, а записи сбрасываются
+ * после ее коммита. Смена фаз по времени приходит событием от
+ * {@link ru.practicum.shareit.booking.lifecycle.BookingLifecycle}, поэтому CURRENT, PAST и FUTURE
+ * не устаревают вместе с часами.
+ * <p>
+ * События приходят только от записей этого экземпляра, поэтому изменения, сделанные на других,
+ * видны не позже {@code shareit.booking.list-cache.ttl}. Ключи проиндексированы по пользователю,
+ * и сброс перебирает только записи затронутых пользователей.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(BookingListCacheProperties.class)
+public class BookingListCache implements MeterBinder {
+    private static final Set<BookingState> PHASE_STATES = EnumSet.of(BookingState.CURRENT, BookingState.PAST,
+            BookingState.FUTURE);
+
+    private final BookingRepository bookingRepository;
+    private final boolean enabled;
+    private final Cache<Key, CursorSlice<BookingResponseDto>> cache;
+    private final ConcurrentMap<Long, Set<Key>> keysByUser = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public BookingListCache(BookingRepository bookingRepository, BookingListCacheProperties properties) {
+        this.bookingRepository = bookingRepository;
+        this.enabled = properties.enabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maxSize())
+                .expireAfterWrite(properties.ttl())
+                .evictionListener((Key key, CursorSlice<BookingResponseDto> page, RemovalCause cause) -> unindex(key))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Возвращает страницу из кэша или загружает ее. Страница, загруженная во время сброса,
+     * в кэше не остается.
+     */
+    public CursorSlice<BookingResponseDto> get(Key key, Supplier<CursorSlice<BookingResponseDto>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        CursorSlice<BookingResponseDto> cached = cache.getIfPresent(key);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        long loadedAt = generation.get();
+        CursorSlice<BookingResponseDto> fresh = loader.get();
+        index(key);
+        cache.put(key, fresh);
+
+        if (generation.get() != loadedAt) {
+            remove(key);
+        }
+
+        return fresh;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onBookingsChanged(BookingsChangedEvent event) {
+        evictAfterCommit(event.userIds(), key -> true);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onBookingPhasesChanged(BookingPhasesChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        Set<Long> userIds = new HashSet<>();
+
+        for (BookingParticipants participants : bookingRepository.findParticipants(event.bookingIds())) {
+            userIds.add(participants.getBookerId());
+            userIds.add(participants.getOwnerId());
+        }
+
+        evictAfterCommit(userIds, key -> PHASE_STATES.contains(key.state()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onItemUpdated(ItemUpdatedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        Set<Long> userIds = new HashSet<>(bookingRepository.findBookerIdsByItemId(event.itemId()));
+        userIds.add(event.ownerId());
+
+        evictAfterCommit(userIds, key -> true);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onUserUpdated(UserUpdatedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        Set<Long> userIds = new HashSet<>(bookingRepository.findItemOwnerIdsByBookerId(event.userId()));
+        userIds.add(event.userId());
+
+        evictAfterCommit(userIds, key -> true);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "booking-lists");
+    }
+
+    private void evictAfterCommit(Set<Long> userIds, Predicate<Key> affected) {
+        if (!enabled || userIds.isEmpty()) {
+            return;
+        }
+
+        Set<Long> users = Set.copyOf(userIds);
+        TransactionHooks.afterCommit(() -> evict(users, affected));
+    }
+
+    private void evict(Set<Long> userIds, Predicate<Key> affected) {
+        generation.incrementAndGet();
+
+        for (Long userId : userIds) {
+            Set<Key> keys = keysByUser.get(userId);
+
+            if (keys != null) {
+                List.copyOf(keys).stream().filter(affected).forEach(this::remove);
+            }
+        }
+
+        log.debug("Кэш списков бронирований сброшен для пользователей {}", userIds);
+    }
+
+    private void remove(Key key) {
+        cache.invalidate(key);
+        unindex(key);
+    }
+
+    private void index(Key key) {
+        keysByUser.compute(key.userId(), (userId, keys) -> {
+            Set<Key> indexed = keys != null ? keys : ConcurrentHashMap.newKeySet();
+            indexed.add(key);
+            return indexed;
+        });
+    }
+
+    private void unindex(Key key) {
+        keysByUser.computeIfPresent(key.userId(), (userId, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    public record Key(BookingRole role, Long userId, BookingState state, String after, Integer size) {
+    }
+}
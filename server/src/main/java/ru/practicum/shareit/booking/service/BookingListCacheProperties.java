@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "shareit.booking.list-cache")
+public record BookingListCacheProperties(@DefaultValue("true") boolean enabled,
+                                         @DefaultValue("10000") long maxSize,
+                                         @DefaultValue("1m") Duration ttl) {
+}
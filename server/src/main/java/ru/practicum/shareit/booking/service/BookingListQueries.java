@@ -0,0 +1,88 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.repository.BookingListQuery;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.status.BookingPhase;
+import ru.practicum.shareit.booking.status.BookingRole;
+import ru.practicum.shareit.booking.status.BookingState;
+import ru.practicum.shareit.booking.status.RentalStatus;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Таблица выборок списков бронирований: для каждой пары (роль, состояние) при старте выбираются
+ * запрос репозитория и таймер задержки. Все запросы отдают строки по убыванию (start, id) —
+ * в порядке курсора, поэтому отдельная сортировка не нужна.
+ */
+@Component
+public class BookingListQueries {
+    public static final String TIMER = "shareit.bookings.list";
+
+    private final Map<BookingRole, Map<BookingState, Strategy>> strategies = new EnumMap<>(BookingRole.class);
+
+    public BookingListQueries(BookingRepository bookingRepository, MeterRegistry meterRegistry) {
+        Map<BookingState, BookingListQuery> booker = new EnumMap<>(BookingState.class);
+        booker.put(BookingState.ALL, bookingRepository::findByBooker);
+        booker.put(BookingState.CURRENT, (user, start, id, limit) ->
+                bookingRepository.findByBookerAndPhase(user, BookingPhase.ACTIVE, start, id, limit));
+        booker.put(BookingState.PAST, (user, start, id, limit) ->
+                bookingRepository.findByBookerAndPhase(user, BookingPhase.FINISHED, start, id, limit));
+        booker.put(BookingState.FUTURE, (user, start, id, limit) ->
+                bookingRepository.findByBookerAndPhase(user, BookingPhase.UPCOMING, start, id, limit));
+        booker.put(BookingState.WAITING, (user, start, id, limit) ->
+                bookingRepository.findByBookerAndStatus(user, RentalStatus.WAITING, start, id, limit));
+        booker.put(BookingState.REJECTED, (user, start, id, limit) ->
+                bookingRepository.findByBookerAndStatus(user, RentalStatus.REJECTED, start, id, limit));
+
+        Map<BookingState, BookingListQuery> owner = new EnumMap<>(BookingState.class);
+        owner.put(BookingState.ALL, bookingRepository::findByItemOwner);
+        owner.put(BookingState.CURRENT, (user, start, id, limit) ->
+                bookingRepository.findByItemOwnerAndPhase(user, BookingPhase.ACTIVE, start, id, limit));
+        owner.put(BookingState.PAST, (user, start, id, limit) ->
+                bookingRepository.findByItemOwnerAndPhase(user, BookingPhase.FINISHED, start, id, limit));
+        owner.put(BookingState.FUTURE, (user, start, id, limit) ->
+                bookingRepository.findByItemOwnerAndPhase(user, BookingPhase.UPCOMING, start, id, limit));
+        owner.put(BookingState.WAITING, (user, start, id, limit) ->
+                bookingRepository.findByItemOwnerAndStatus(user, RentalStatus.WAITING, start, id, limit));
+        owner.put(BookingState.REJECTED, (user, start, id, limit) ->
+                bookingRepository.findByItemOwnerAndStatus(user, RentalStatus.REJECTED, start, id, limit));
+
+        register(BookingRole.BOOKER, booker, meterRegistry);
+        register(BookingRole.OWNER, owner, meterRegistry);
+    }
+
+    public List<BookingResponseDto> find(BookingRole role, BookingState state, User user, BookingCursor cursor,
+                                         Limit limit) {
+        Strategy strategy = strategies.get(role).get(state);
+
+        return strategy.timer().record(() -> strategy.query().find(user, cursor.start(), cursor.id(), limit));
+    }
+
+    private void register(BookingRole role, Map<BookingState, BookingListQuery> queries, MeterRegistry meterRegistry) {
+        if (queries.size() != BookingState.values().length) {
+            throw new IllegalStateException("Не для всех состояний бронирований задан запрос: " + role);
+        }
+
+        Map<BookingState, Strategy> byState = new EnumMap<>(BookingState.class);
+
+        queries.forEach((state, query) -> byState.put(state, new Strategy(query, Timer.builder(TIMER)
+                .description("Время выборки списка бронирований из базы")
+                .tag("role", role.name())
+                .tag("state", state.name())
+                .register(meterRegistry))));
+
+        strategies.put(role, byState);
+    }
+
+    private record Strategy(BookingListQuery query, Timer timer) {
+    }
+}
@@ -1,7 +1,11 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionRequestDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.status.BookingState;
+import ru.practicum.shareit.pagination.CursorSlice;
 
 import java.util.List;
 
@@ -10,9 +14,11 @@ public interface BookingService {
 
     BookingResponseDto updateBooking(Long userId, Long bookingId, Boolean approved);
 
+    List<BookingDecisionDto> updateBookings(Long userId, BookingDecisionRequestDto decision);
+
     BookingResponseDto findBookingById(Long userId, Long bookingId);
 
-    List<BookingResponseDto> findUserBookings(Long userId, String state);
+    CursorSlice<BookingResponseDto> findUserBookings(Long userId, BookingState state, String after, Integer size);
 
-    List<BookingResponseDto> findOwnerReservedItems(Long userId, String state);
+    CursorSlice<BookingResponseDto> findOwnerReservedItems(Long userId, BookingState state, String after, Integer size);
 }
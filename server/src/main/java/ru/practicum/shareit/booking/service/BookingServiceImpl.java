@@ -2,23 +2,47 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Sort;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionRequestDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.dto.mapper.BookingMapper;
+import ru.practicum.shareit.booking.event.BookingsChangedEvent;
+import ru.practicum.shareit.booking.lifecycle.BookingLifecycle;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingDecisionCandidate;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.status.BookingDecisionOutcome;
+import ru.practicum.shareit.booking.status.BookingPhase;
+import ru.practicum.shareit.booking.status.BookingRole;
+import ru.practicum.shareit.booking.status.BookingState;
 import ru.practicum.shareit.booking.status.RentalStatus;
+import ru.practicum.shareit.exception.InternalServerException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemSummaries;
+import ru.practicum.shareit.pagination.CursorSlice;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.KnownUsers;
 
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
@@ -28,6 +52,14 @@ public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final KnownUsers knownUsers;
+    private final ApprovedBookingIntervals approvedBookingIntervals;
+    private final BookingLifecycle bookingLifecycle;
+    private final BookingListCache bookingListCache;
+    private final BookingListQueries bookingListQueries;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ItemSummaries itemSummaries;
+    private final Clock clock;
 
     @Override
     public BookingResponseDto createBooking(Long userId, BookingRequestDto bookingRequestDto) {
@@ -48,12 +80,23 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Период указан неверно");
         }
 
+        if (!approvedBookingIntervals.isFree(item.getId(), bookingRequestDto.getStart(), bookingRequestDto.getEnd())) {
+            log.warn("Вещь уже забронирована на этот период");
+            throw new ValidationException("Вещь уже забронирована на этот период");
+        }
+
         RentalStatus status = RentalStatus.WAITING;
+        Booking booking = BookingMapper.toBooking(bookingRequestDto, item, booker, status);
+        booking.setPhase(BookingPhase.at(booking.getStart(), booking.getEnd(), LocalDateTime.now(clock)));
+        booking = bookingRepository.save(booking);
+        bookingLifecycle.track(booking.getId(), booking.getStart(), booking.getEnd());
+        eventPublisher.publishEvent(new BookingsChangedEvent(Set.of(userId, item.getOwner().getId())));
 
-        return BookingMapper.toBookingDto(bookingRepository.save(BookingMapper.toBooking(bookingRequestDto, item, booker, status)));
+        return BookingMapper.toBookingDto(booking);
     }
 
     @Override
+    @Transactional
     public BookingResponseDto updateBooking(Long userId, Long bookingId, Boolean approved) {
         validateForbiddenUser(userId);
         Booking booking = validateBooking(bookingId);
@@ -68,14 +111,121 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Нельзя изменить статус: бронирование уже подтверждено или отклонено");
         }
 
+        if (approved && !approvedBookingIntervals.reserve(booking.getItem().getId(), booking.getId(),
+                booking.getStart(), booking.getEnd())) {
+            log.warn("Вещь уже забронирована на этот период");
+            throw new ValidationException("Вещь уже забронирована на этот период");
+        }
+
         booking.setStatus(approved ? RentalStatus.APPROVED : RentalStatus.REJECTED);
 
-        return BookingMapper.toBookingDto(bookingRepository.save(booking));
+        BookingResponseDto updated;
+
+        try {
+            updated = BookingMapper.toBookingDto(bookingRepository.saveAndFlush(booking));
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Подтвержденные бронирования вещи {} пересекаются", booking.getItem().getId());
+            throw new ValidationException("Вещь уже забронирована на этот период");
+        }
+
+        if (approved) {
+            itemSummaries.refreshBookings(List.of(booking.getItem().getId()));
+        }
+
+        eventPublisher.publishEvent(new BookingsChangedEvent(Set.of(userId, booking.getBooker().getId())));
+
+        return updated;
+    }
+
+    /**
+     * Подтверждает или отклоняет несколько бронирований владельца, возвращая результат для каждого id.
+     * Число запросов не зависит от размера пачки: блокировка строк, чтение кандидатов, одно чтение
+     * подтвержденных периодов всех вещей пачки (только при подтверждении) и один массовый UPDATE;
+     * сводки затронутых вещей пересчитываются тоже пачкой.
+     */
+    @Override
+    @Transactional
+    public List<BookingDecisionDto> updateBookings(Long userId, BookingDecisionRequestDto decision) {
+        validateForbiddenUser(userId);
+
+        if (decision.getBookingIds() == null || decision.getBookingIds().isEmpty() || decision.getApproved() == null) {
+            log.warn("Список бронирований или решение не указаны");
+            throw new ValidationException("Список бронирований или решение не указаны");
+        }
+
+        Set<Long> bookingIds = new LinkedHashSet<>(decision.getBookingIds());
+        bookingRepository.lockByIds(bookingIds);
+        Map<Long, BookingDecisionCandidate> candidates = bookingRepository.findDecisionCandidates(bookingIds).stream()
+                .collect(Collectors.toMap(BookingDecisionCandidate::getId, Function.identity()));
+        BookingDecisionOutcome decided = decision.getApproved()
+                ? BookingDecisionOutcome.APPROVED
+                : BookingDecisionOutcome.REJECTED;
+
+        List<BookingDecisionCandidate> decidable = bookingIds.stream()
+                .map(candidates::get)
+                .filter(candidate -> candidate != null && Objects.equals(candidate.getOwnerId(), userId)
+                        && candidate.getStatus() == RentalStatus.WAITING)
+                .toList();
+        Set<Long> reserved = decision.getApproved()
+                ? approvedBookingIntervals.reserveAll(decidable)
+                : decidable.stream().map(BookingDecisionCandidate::getId).collect(Collectors.toSet());
+
+        List<BookingDecisionDto> outcomes = new ArrayList<>(bookingIds.size());
+        List<Long> waiting = new ArrayList<>();
+        Set<Long> affectedUsers = new LinkedHashSet<>(List.of(userId));
+        Set<Long> affectedItems = new LinkedHashSet<>();
+
+        for (Long bookingId : bookingIds) {
+            BookingDecisionCandidate candidate = candidates.get(bookingId);
+            BookingDecisionOutcome outcome;
+
+            if (candidate == null) {
+                outcome = BookingDecisionOutcome.NOT_FOUND;
+            } else if (!Objects.equals(candidate.getOwnerId(), userId)) {
+                outcome = BookingDecisionOutcome.NOT_OWNER;
+            } else if (candidate.getStatus() != RentalStatus.WAITING) {
+                outcome = BookingDecisionOutcome.ALREADY_DECIDED;
+            } else if (!reserved.contains(bookingId)) {
+                outcome = BookingDecisionOutcome.CONFLICT;
+            } else {
+                outcome = decided;
+                waiting.add(bookingId);
+                affectedUsers.add(candidate.getBookerId());
+                affectedItems.add(candidate.getItemId());
+            }
+
+            outcomes.add(new BookingDecisionDto(bookingId, outcome));
+        }
+
+        if (!waiting.isEmpty()) {
+            RentalStatus status = decision.getApproved() ? RentalStatus.APPROVED : RentalStatus.REJECTED;
+            int updated;
+
+            try {
+                updated = bookingRepository.decideWaitingBookings(waiting, userId, status);
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Подтвержденные бронирования пересекаются: {}", waiting);
+                throw new ValidationException("Вещь уже забронирована на этот период");
+            }
+
+            if (updated != waiting.size()) {
+                throw new InternalServerException("Статус бронирований изменился во время обработки");
+            }
+
+            if (decision.getApproved()) {
+                itemSummaries.refreshBookings(affectedItems);
+            }
+
+            eventPublisher.publishEvent(new BookingsChangedEvent(affectedUsers));
+        }
+
+        return outcomes;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public BookingResponseDto findBookingById(Long userId, Long bookingId) {
-        validateUser(userId);
+        knownUsers.require(userId);
         Booking booking = validateBooking(bookingId);
 
         if (!Objects.equals(booking.getItem().getOwner().getId(), userId) && !Objects.equals(booking.getBooker().getId(), userId)) {
@@ -87,76 +237,57 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingResponseDto> findUserBookings(Long userId, String state) {
-        User booker = validateUser(userId);
-
-        List<Booking> bookerBookings;
-        Sort sortDescByStart = Sort.by(Sort.Direction.DESC, "start");
-
-        switch (state) {
-            case "CURRENT":
-                bookerBookings = bookingRepository.findCurrentBookings(booker, sortDescByStart);
-                break;
-            case "PAST":
-                bookerBookings = bookingRepository.findPastBookings(booker, sortDescByStart);
-                break;
-            case "FUTURE":
-                bookerBookings = bookingRepository.findFutureBookings(booker, sortDescByStart);
-                break;
-            case "WAITING":
-                bookerBookings = bookingRepository.findByBookerAndStatus(booker, RentalStatus.WAITING, sortDescByStart);
-                break;
-            case "REJECTED":
-                bookerBookings = bookingRepository.findByBookerAndStatus(booker, RentalStatus.REJECTED, sortDescByStart);
-                break;
-            case "ALL":
-            default:
-                bookerBookings = bookingRepository.findByBooker(booker, sortDescByStart);
-                break;
-        }
-
-        return bookerBookings.stream()
-                .map(BookingMapper::toBookingDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorSlice<BookingResponseDto> findUserBookings(Long userId, BookingState state, String after,
+                                                            Integer size) {
+        return findBookings(BookingRole.BOOKER, userId, state, after, size);
     }
 
     @Override
-    public List<BookingResponseDto> findOwnerReservedItems(Long userId, String state) {
-        User owner = validateUser(userId);
-
-        List<Booking> ownerBookings;
-        Sort sortDescByStart = Sort.by(Sort.Direction.DESC, "start");
-
-        switch (state) {
-            case "CURRENT":
-                ownerBookings = bookingRepository.findCurrentItemsBookings(owner, sortDescByStart);
-                break;
-            case "PAST":
-                ownerBookings = bookingRepository.findPastItemsBookings(owner, sortDescByStart);
-                break;
-            case "FUTURE":
-                ownerBookings = bookingRepository.findFutureItemsBookings(owner, sortDescByStart);
-                break;
-            case "WAITING":
-                ownerBookings = bookingRepository.findByItemOwnerAndStatus(owner, RentalStatus.WAITING, sortDescByStart);
-                break;
-            case "REJECTED":
-                ownerBookings = bookingRepository.findByItemOwnerAndStatus(owner, RentalStatus.REJECTED, sortDescByStart);
-                break;
-            case "ALL":
-            default:
-                ownerBookings = bookingRepository.findByItemOwner(owner, sortDescByStart);
-                break;
-        }
-
-        return ownerBookings.stream()
-                .map(BookingMapper::toBookingDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorSlice<BookingResponseDto> findOwnerReservedItems(Long userId, BookingState state, String after,
+                                                                  Integer size) {
+        return findBookings(BookingRole.OWNER, userId, state, after, size);
+    }
+
+    private CursorSlice<BookingResponseDto> findBookings(BookingRole role, Long userId, BookingState state,
+                                                         String after, Integer size) {
+        knownUsers.require(userId);
+        BookingCursor cursor = BookingCursor.parse(after);
+        Limit limit = toLimit(size);
+
+        return bookingListCache.get(new BookingListCache.Key(role, userId, state, after, size), () -> {
+            User user = userRepository.getReferenceById(userId);
+
+            return toSlice(bookingListQueries.find(role, state, user, cursor, limit), size);
+        });
+    }
+
+    private Limit toLimit(Integer size) {
+        if (size == null) {
+            return Limit.unlimited();
+        }
+
+        if (size <= 0) {
+            log.warn("Размер страницы указан неверно");
+            throw new ValidationException("Размер страницы указан неверно");
+        }
+
+        return Limit.of(size + 1);
+    }
+
+    private CursorSlice<BookingResponseDto> toSlice(List<BookingResponseDto> content, Integer size) {
+        if (size == null) {
+            return new CursorSlice<>(content, null);
+        }
+
+        return CursorSlice.of(content, size, BookingCursor::format);
     }
 
     private void validateForbiddenUser(Long userId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new ValidationException("Пользователю с данным id: " + userId + " доступ запрещен"));
+        if (!knownUsers.exists(userId)) {
+            throw new ValidationException("Пользователю с данным id: " + userId + " доступ запрещен");
+        }
     }
 
     private User validateUser(Long userId) {
@@ -170,7 +301,7 @@ public class BookingServiceImpl implements BookingService {
     }
 
     private Booking validateBooking(Long bookingId) {
-        return bookingRepository.findById(bookingId)
+        return bookingRepository.findWithItemAndBookerById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Бронирование с данным id:" + bookingId + " не найдено"));
     }
 }
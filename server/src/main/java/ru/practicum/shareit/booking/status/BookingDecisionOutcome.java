@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.status;
+
+public enum BookingDecisionOutcome {
+    APPROVED,
+    REJECTED,
+    NOT_FOUND,
+    NOT_OWNER,
+    ALREADY_DECIDED,
+    CONFLICT
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.status;
+
+import java.time.LocalDateTime;
+
+/**
+ * Положение бронирования относительно текущего момента. Хранится в таблице и переводится
+ * {@link ru.practicum.shareit.booking.lifecycle.BookingLifecycle} в моменты начала и окончания.
+ */
+public enum BookingPhase {
+    UPCOMING,
+    ACTIVE,
+    FINISHED;
+
+    public static BookingPhase at(LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+        if (end.isBefore(now)) {
+            return FINISHED;
+        }
+
+        return start.isAfter(now) ? UPCOMING : ACTIVE;
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "shareit.cache.entity")
+public record EntityCacheProperties(@DefaultValue("10000") long maxSize,
+                                    @DefaultValue("10m") Duration ttl) {
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Следит через JFR за виртуальными потоками, закрепленными на потоке-носителе (блокировка внутри
+ * synchronized или native-кода), и считает такие случаи в метрике {@code jvm.threads.virtual.pinned}.
+ */
+@Slf4j
+public class VirtualThreadPinningMonitor implements AutoCloseable {
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final Counter pinned;
+    private final RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry registry, Duration threshold) {
+        this.pinned = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Блокировки виртуального потока с закреплением на потоке-носителе")
+                .register(registry);
+        this.stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+    }
+
+    public void start() {
+        stream.startAsync();
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.increment();
+
+        List<RecordedFrame> frames = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames();
+        String location = frames.stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .filter(frame -> !frame.getMethod().getType().getName().startsWith("java."))
+                .findFirst()
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .orElse("неизвестно");
+
+        log.warn("Виртуальный поток закреплен на {} мс в {}", event.getDuration().toMillis(), location);
+    }
+}
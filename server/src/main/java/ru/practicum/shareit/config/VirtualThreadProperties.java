@@ -0,0 +1,10 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "shareit.virtual-threads")
+public record VirtualThreadProperties(@DefaultValue("20ms") Duration pinnedThreshold) {
+}
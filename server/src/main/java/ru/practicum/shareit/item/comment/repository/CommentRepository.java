@@ -1,10 +1,22 @@
 package ru.practicum.shareit.item.comment.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.comment.dto.CommentResponseDto;
 import ru.practicum.shareit.item.comment.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByItemIdIn(List<Long> itemIds);
+    @Query("SELECT new ru.practicum.shareit.item.comment.dto.CommentResponseDto(c.id, c.text, a.name, " +
+            "c.created, c.item.id) FROM Comment AS c JOIN c.author AS a WHERE c.id IN :ids")
+    List<CommentResponseDto> findCommentDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT c.id FROM Comment AS c WHERE c.item.id = :itemId ORDER BY c.created DESC, c.id DESC")
+    List<Long> findLatestIdsByItemId(@Param("itemId") Long itemId, Limit limit);
+
+    long countByItemId(Long itemId);
 }
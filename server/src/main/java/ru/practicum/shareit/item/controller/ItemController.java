@@ -2,13 +2,17 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.comment.dto.CommentRequestDto;
 import ru.practicum.shareit.item.comment.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RequiredArgsConstructor
@@ -24,6 +28,12 @@ public class ItemController {
         return itemService.createItem(userId, itemDto);
     }
 
+    @PostMapping("/batch")
+    public List<ItemDto> createItems(@RequestHeader("X-Sharer-User-Id") Long userId, @RequestBody List<ItemDto> itemDtos) {
+        log.info("POST /items/batch");
+        return itemService.createItems(userId, itemDtos);
+    }
+
     @PatchMapping("{itemId}")
     public ItemDto updateItem(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable("itemId") Long itemId, @RequestBody ItemDto itemDto) {
         log.info("PATCH /items/{}", itemId);
@@ -36,6 +46,17 @@ public class ItemController {
         return itemService.findItemById(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto findAvailability(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                @PathVariable("itemId") Long itemId,
+                                                @RequestParam(required = false)
+                                                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                @RequestParam(required = false)
+                                                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("GET /items/{}/availability", itemId);
+        return itemService.findAvailability(userId, itemId, from, to);
+    }
+
     @GetMapping
     public List<ItemBookingDto> findUserItems(@RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("GET /items");
@@ -43,9 +64,12 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public List<ItemDto> searchItem(@RequestParam(name = "text") String text) {
+    public ResponseEntity<List<ItemDto>> searchItem(@RequestParam(name = "text") String text,
+                                                    @RequestParam(required = false) Long after,
+                                                    @RequestParam(defaultValue = "0") int from,
+                                                    @RequestParam(required = false) Integer size) {
         log.info("GET /items/search?text={}.", text);
-        return itemService.searchItem(text);
+        return itemService.searchItem(text, after, from, size).toResponseEntity();
     }
 
     @PostMapping("/{itemId}/comment")
@@ -6,9 +6,13 @@ import ru.practicum.shareit.item.comment.dto.CommentResponseDto;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemCardRow;
+import ru.practicum.shareit.item.repository.OwnerItemSummary;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 @UtilityClass
@@ -45,6 +49,21 @@ public class ItemMapper {
         );
     }
 
+    public static ItemBookingDto toItemBookingDto(OwnerItemSummary item,
+                                                  SimplifiedBookingDto lastBooking,
+                                                  SimplifiedBookingDto nextBooking,
+                                                  List<CommentResponseDto> comments) {
+        return new ItemBookingDto(
+                item.getId(),
+                item.getName(),
+                item.getDescription(),
+                item.getAvailable(),
+                lastBooking,
+                nextBooking,
+                comments
+        );
+    }
+
     public static ItemBookingDto toItemBookingDto(Item item,
                                                   SimplifiedBookingDto lastBooking,
                                                   SimplifiedBookingDto nextBooking,
@@ -59,4 +78,42 @@ public class ItemMapper {
                 comments
         );
     }
+
+    /**
+     * Собирает карточку из строк {@link ItemCardRow}; {@code null}, если строки вещи нет.
+     */
+    public static ItemBookingDto toItemBookingDto(List<ItemCardRow> rows) {
+        ItemBookingDto card = null;
+        List<CommentResponseDto> comments = new ArrayList<>();
+        SimplifiedBookingDto lastBooking = null;
+        SimplifiedBookingDto nextBooking = null;
+
+        for (ItemCardRow row : rows) {
+            switch (row.getKind()) {
+                case ItemCardRow.ITEM -> card = new ItemBookingDto(row.getId(), row.getText(), row.getDetail(),
+                        row.getAvailable(), null, null, comments);
+                case ItemCardRow.LAST -> lastBooking = new SimplifiedBookingDto(row.getId(), row.getRefId());
+                case ItemCardRow.NEXT -> nextBooking = new SimplifiedBookingDto(row.getId(), row.getRefId());
+                case ItemCardRow.COMMENT -> comments.add(new CommentResponseDto(row.getId(), row.getText(),
+                        row.getDetail(), row.getCreated(), null));
+                default -> throw new IllegalStateException("Неизвестная строка карточки вещи: " + row.getKind());
+            }
+        }
+
+        if (card == null) {
+            return null;
+        }
+
+        for (CommentResponseDto comment : comments) {
+            comment.setItemId(card.getId());
+        }
+
+        comments.sort(Comparator.comparing(CommentResponseDto::getCreated)
+                .thenComparing(CommentResponseDto::getId)
+                .reversed());
+        card.setLastBooking(lastBooking);
+        card.setNextBooking(nextBooking);
+
+        return card;
+    }
 }
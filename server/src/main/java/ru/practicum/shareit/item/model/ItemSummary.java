@@ -0,0 +1,64 @@
+package ru.practicum.shareit.item.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Сводка по вещи для списка вещей владельца: последнее и ближайшее подтвержденные бронирования,
+ * число отзывов и id последних отзывов (через запятую, новые первыми). Обновляется при записи.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "item_summary")
+public class ItemSummary {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+    @Column(name = "last_booker_id")
+    private Long lastBookerId;
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+    @Column(name = "next_booker_id")
+    private Long nextBookerId;
+    @Column(name = "comment_count")
+    private long commentCount;
+    @Column(name = "latest_comment_ids")
+    private String latestCommentIds;
+
+    public static List<Long> parseCommentIds(String latestCommentIds) {
+        if (latestCommentIds == null || latestCommentIds.isEmpty()) {
+            return List.of();
+        }
+
+        return Arrays.stream(latestCommentIds.split(","))
+                .map(Long::valueOf)
+                .toList();
+    }
+
+    public void addComment(Long commentId, int limit) {
+        List<Long> ids = new ArrayList<>(limit);
+        ids.add(commentId);
+
+        for (Long id : parseCommentIds(latestCommentIds)) {
+            if (ids.size() >= limit) {
+                break;
+            }
+            ids.add(id);
+        }
+
+        commentCount++;
+        latestCommentIds = ids.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+    }
+}
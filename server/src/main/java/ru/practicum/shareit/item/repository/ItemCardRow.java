@@ -0,0 +1,32 @@
+package ru.practicum.shareit.item.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Строка карточки вещи. Значение колонок зависит от {@link #getKind()}:
+ * <ul>
+ *     <li>ITEM — id вещи, refId — владелец, text — название, detail — описание, available;</li>
+ *     <li>LAST, NEXT — id бронирования, refId — арендатор;</li>
+ *     <li>COMMENT — id отзыва, text — текст, detail — имя автора, created.</li>
+ * </ul>
+ */
+public interface ItemCardRow {
+    String ITEM = "ITEM";
+    String LAST = "LAST";
+    String NEXT = "NEXT";
+    String COMMENT = "COMMENT";
+
+    String getKind();
+
+    Long getId();
+
+    Long getRefId();
+
+    String getText();
+
+    String getDetail();
+
+    Boolean getAvailable();
+
+    LocalDateTime getCreated();
+}
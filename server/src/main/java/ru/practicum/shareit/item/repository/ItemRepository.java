@@ -1,19 +1,75 @@
 package ru.practicum.shareit.item.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.model.User;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    List<Item> findAllByOwner(User user);
+    @Query(value = "SELECT * FROM items AS i " +
+            "WHERE to_tsvector('simple', coalesce(i.name, '') || ' ' || coalesce(i.description, '')) " +
+            "@@ to_tsquery('simple', :query) " +
+            "AND i.available = true " +
+            "AND i.id > :afterId " +
+            "ORDER BY i.id " +
+            "LIMIT :limit OFFSET :offset", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Item> searchFullText(@Param("query") String query,
+                              @Param("afterId") long afterId,
+                              @Param("offset") int offset,
+                              @Param("limit") int limit);
 
-    @Query("SELECT i FROM Item i " +
-            "WHERE UPPER(i.name) LIKE UPPER(CONCAT('%', ?1, '%')) " +
-            " OR UPPER(i.description) LIKE UPPER(CONCAT('%', ?1, '%'))")
-    List<Item> search(String text);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Item> findByIdInAndAvailableTrue(Collection<Long> ids, Sort sort);
 
-    List<Item> findAllByItemRequestIdIn(List<Long> requestIds);
+    /**
+     * Следующая порция вещей для поискового индекса по id, без сущностей и без подсчета общего числа.
+     */
+    @Query("SELECT i.id AS id, i.name AS name, i.description AS description, i.available AS available " +
+            "FROM Item AS i WHERE i.id > :afterId ORDER BY i.id")
+    List<ItemSearchRow> findSearchRowsAfter(@Param("afterId") long afterId, Limit limit);
+
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, " +
+            "i.itemRequest.id) FROM Item AS i WHERE i.itemRequest.id IN :requestIds")
+    List<ItemDto> findItemDtosByRequestIdIn(@Param("requestIds") Collection<Long> requestIds);
+
+    /**
+     * Карточка вещи за один запрос: сама вещь, последнее и ближайшее подтвержденные бронирования
+     * (только для владельца) и последние {@code commentLimit} отзывов. Бронирования выбираются
+     * по фазе, как в {@link ItemSummaryRepository}, чтобы карточка и список вещей совпадали.
+     */
+    @Query(value = "SELECT 'ITEM' AS kind, i.id AS id, i.owner_id AS refId, i.name AS text, " +
+            "i.description AS detail, i.available AS available, CAST(NULL AS TIMESTAMP) AS created " +
+            "FROM items AS i WHERE i.id = :itemId " +
+            "UNION ALL " +
+            "SELECT * FROM (SELECT 'LAST' AS kind, b.id AS id, b.booker_id AS refId, CAST(NULL AS VARCHAR) AS text, " +
+            "CAST(NULL AS VARCHAR) AS detail, CAST(NULL AS BOOLEAN) AS available, CAST(NULL AS TIMESTAMP) AS created " +
+            "FROM bookings AS b JOIN items AS o ON o.id = b.item_id " +
+            "WHERE b.item_id = :itemId AND o.owner_id = :userId AND b.status = 'APPROVED' " +
+            "AND b.phase = 'FINISHED' " +
+            "ORDER BY b.end_date DESC, b.id DESC LIMIT 1) AS l " +
+            "UNION ALL " +
+            "SELECT * FROM (SELECT 'NEXT' AS kind, b.id AS id, b.booker_id AS refId, CAST(NULL AS VARCHAR) AS text, " +
+            "CAST(NULL AS VARCHAR) AS detail, CAST(NULL AS BOOLEAN) AS available, CAST(NULL AS TIMESTAMP) AS created " +
+            "FROM bookings AS b JOIN items AS o ON o.id = b.item_id " +
+            "WHERE b.item_id = :itemId AND o.owner_id = :userId AND b.status = 'APPROVED' " +
+            "AND b.phase = 'UPCOMING' " +
+            "ORDER BY b.start_date, b.id LIMIT 1) AS n " +
+            "UNION ALL " +
+            "SELECT * FROM (SELECT 'COMMENT' AS kind, c.id AS id, CAST(NULL AS BIGINT) AS refId, c.text AS text, " +
+            "a.name AS detail, CAST(NULL AS BOOLEAN) AS available, c.created AS created " +
+            "FROM comments AS c JOIN users AS a ON a.id = c.author_id " +
+            "WHERE c.item_id = :itemId " +
+            "ORDER BY c.created DESC, c.id DESC LIMIT :commentLimit) AS c", nativeQuery = true)
+    List<ItemCardRow> findItemCard(@Param("itemId") Long itemId, @Param("userId") Long userId,
+                                   @Param("commentLimit") int commentLimit);
 }
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.repository;
+
+/**
+ * Поля вещи, которые нужны поисковому индексу; читаются без загрузки сущности.
+ */
+public interface ItemSearchRow {
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+}
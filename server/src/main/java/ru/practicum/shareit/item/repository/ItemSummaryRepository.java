@@ -0,0 +1,64 @@
+package ru.practicum.shareit.item.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.model.ItemSummary;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Нативные изменения объявляют таблицу {@code item_summary} своим пространством запроса,
+ * иначе Hibernate сбрасывает все регионы кэша второго уровня при каждом выполнении.
+ */
+public interface ItemSummaryRepository extends JpaRepository<ItemSummary, Long> {
+    String SUMMARY_SPACE = "item_summary";
+    String LAST_BOOKING = "FROM bookings AS b WHERE b.item_id = item_summary.item_id " +
+            "AND b.status = 'APPROVED' AND b.phase = 'FINISHED' ORDER BY b.end_date DESC, b.id DESC LIMIT 1";
+    String NEXT_BOOKING = "FROM bookings AS b WHERE b.item_id = item_summary.item_id " +
+            "AND b.status = 'APPROVED' AND b.phase = 'UPCOMING' ORDER BY b.start_date, b.id LIMIT 1";
+    String REFRESH_BOOKINGS = "UPDATE item_summary SET " +
+            "last_booking_id = (SELECT b.id " + LAST_BOOKING + "), " +
+            "last_booker_id = (SELECT b.booker_id " + LAST_BOOKING + "), " +
+            "next_booking_id = (SELECT b.id " + NEXT_BOOKING + "), " +
+            "next_booker_id = (SELECT b.booker_id " + NEXT_BOOKING + ")";
+
+    @Query("SELECT i.id AS id, i.name AS name, i.description AS description, i.available AS available, " +
+            "s.lastBookingId AS lastBookingId, s.lastBookerId AS lastBookerId, " +
+            "s.nextBookingId AS nextBookingId, s.nextBookerId AS nextBookerId, " +
+            "s.latestCommentIds AS latestCommentIds " +
+            "FROM Item AS i LEFT JOIN ItemSummary AS s ON s.itemId = i.id " +
+            "WHERE i.owner.id = :ownerId ORDER BY i.id")
+    List<OwnerItemSummary> findByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = SUMMARY_SPACE))
+    @Query(value = "INSERT INTO item_summary (item_id) SELECT i.id FROM items AS i " +
+            "WHERE i.id IN (:itemIds) AND NOT EXISTS (SELECT 1 FROM item_summary AS s WHERE s.item_id = i.id)",
+            nativeQuery = true)
+    int createMissing(@Param("itemIds") Collection<Long> itemIds);
+
+    /**
+     * Блокирует строки сводок в порядке id, чтобы следующий пересчет видел все закоммиченные бронирования.
+     */
+    @Query(value = "SELECT s.item_id FROM item_summary AS s WHERE s.item_id IN (:itemIds) " +
+            "ORDER BY s.item_id FOR UPDATE", nativeQuery = true)
+    List<Long> lockAll(@Param("itemIds") Collection<Long> itemIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ItemSummary AS s WHERE s.itemId = :itemId")
+    Optional<ItemSummary> findForUpdate(@Param("itemId") Long itemId);
+
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = SUMMARY_SPACE))
+    @Query(value = REFRESH_BOOKINGS + " WHERE item_id IN (:itemIds)", nativeQuery = true)
+    int refreshBookings(@Param("itemIds") Collection<Long> itemIds);
+}
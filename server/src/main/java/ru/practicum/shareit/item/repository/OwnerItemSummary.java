@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item.repository;
+
+public interface OwnerItemSummary {
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+    Long getLastBookingId();
+
+    Long getLastBookerId();
+
+    Long getNextBookingId();
+
+    Long getNextBookerId();
+
+    String getLatestCommentIds();
+}
@@ -0,0 +1,305 @@
+package ru.practicum.shareit.item.search;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemSearchRow;
+import ru.practicum.shareit.util.TransactionHooks;
+
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Индекс живет в памяти процесса и меняется сразу только от записей этого экземпляра.
+ * Изменения других экземпляров подтягиваются периодической пересборкой из базы, а до нее
+ * каждое найденное id перепроверяется по базе, и страница добирается следующими кандидатами.
+ * Кандидаты читаются порциями по {@value #FETCH_CHUNK_SIZE} id, так что список IN ограничен
+ * и при поиске без размера страницы.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+@EnableConfigurationProperties(ItemSearchRebuildProperties.class)
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory", matchIfMissing = true)
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+    private static final int GRAM_SIZE = 3;
+    private static final int REBUILD_PAGE_SIZE = 500;
+    private static final int FETCH_CHUNK_SIZE = 500;
+
+    private final ItemRepository itemRepository;
+    private final ItemSearchRebuildProperties properties;
+
+    private final Map<Long, IndexedItem> documents = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Set<Long> changedDuringRebuild;
+    private ScheduledExecutorService scheduler;
+
+    @Override
+    public List<Item> search(String text, long afterId, int offset, int limit) {
+        String needle = normalize(text);
+        List<Long> ids = findIds(needle).stream()
+                .filter(id -> id > afterId)
+                .skip(offset)
+                .toList();
+        List<Item> items = new ArrayList<>();
+
+        for (int from = 0; from < ids.size() && items.size() < limit; ) {
+            int to = Math.min(ids.size(), from + Math.min(limit - items.size(), FETCH_CHUNK_SIZE));
+
+            itemRepository.findByIdInAndAvailableTrue(ids.subList(from, to), Sort.by("id")).stream()
+                    .filter(item -> IndexedItem.of(item).matches(needle))
+                    .forEach(items::add);
+            from = to;
+        }
+
+        return items;
+    }
+
+    @Override
+    public void index(Item item) {
+        IndexedItem previous = put(item.getId(), IndexedItem.of(item));
+        TransactionHooks.onRollback(this, item.getId(), () -> restore(item.getId(), previous));
+    }
+
+    @Override
+    public void remove(Long itemId) {
+        IndexedItem previous = delete(itemId);
+        TransactionHooks.onRollback(this, itemId, () -> restore(itemId, previous));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rebuild();
+
+        if (!properties.enabled() || scheduler != null) {
+            return;
+        }
+
+        long intervalMillis = properties.interval().toMillis();
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("item-search-rebuild").daemon().factory());
+        scheduler.scheduleWithFixedDelay(this::rebuildSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Заменяет индекс снимком базы; вещи, которые этот экземпляр изменил во время чтения снимка,
+     * сохраняют свое текущее состояние в индексе.
+     */
+    public void rebuild() {
+        trackChanges(new HashSet<>());
+
+        Map<Long, IndexedItem> snapshot;
+        try {
+            snapshot = loadSnapshot();
+        } catch (RuntimeException e) {
+            trackChanges(null);
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Long id : changedDuringRebuild) {
+                IndexedItem current = documents.get(id);
+                if (current == null) {
+                    snapshot.remove(id);
+                } else {
+                    snapshot.put(id, current);
+                }
+            }
+
+            changedDuringRebuild = null;
+            documents.clear();
+            postings.clear();
+            snapshot.forEach(this::addPostings);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Поисковый индекс вещей построен, проиндексировано: {}", snapshot.size());
+    }
+
+    List<Long> findIds(String text) {
+        String needle = normalize(text);
+
+        lock.readLock().lock();
+        try {
+            Collection<Long> candidates = needle.length() < GRAM_SIZE ? documents.keySet() : candidates(needle);
+
+            return candidates.stream()
+                    .filter(id -> documents.get(id).available() && documents.get(id).matches(needle))
+                    .sorted()
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Collection<Long> candidates(String needle) {
+        List<Set<Long>> lists = new ArrayList<>();
+
+        for (String gram : grams(needle)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return List.of();
+            }
+            lists.add(ids);
+        }
+
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+
+        return result;
+    }
+
+    private IndexedItem put(Long id, IndexedItem document) {
+        lock.writeLock().lock();
+        try {
+            IndexedItem previous = removePostings(id);
+            addPostings(id, document);
+            markChanged(id);
+            return previous;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private IndexedItem delete(Long id) {
+        lock.writeLock().lock();
+        try {
+            markChanged(id);
+            return removePostings(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void restore(Long id, IndexedItem previous) {
+        if (previous == null) {
+            delete(id);
+        } else {
+            put(id, previous);
+        }
+    }
+
+    private void rebuildSafely() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("Не удалось пересобрать поисковый индекс вещей", e);
+        }
+    }
+
+    private Map<Long, IndexedItem> loadSnapshot() {
+        Map<Long, IndexedItem> snapshot = new HashMap<>();
+        long afterId = 0;
+
+        List<ItemSearchRow> rows;
+        do {
+            rows = itemRepository.findSearchRowsAfter(afterId, Limit.of(REBUILD_PAGE_SIZE));
+            for (ItemSearchRow row : rows) {
+                snapshot.put(row.getId(), IndexedItem.of(row));
+                afterId = row.getId();
+            }
+        } while (rows.size() == REBUILD_PAGE_SIZE);
+
+        return snapshot;
+    }
+
+    private void trackChanges(Set<Long> ids) {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = ids;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void markChanged(Long id) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(id);
+        }
+    }
+
+    private void addPostings(Long id, IndexedItem document) {
+        documents.put(id, document);
+        for (String gram : document.grams()) {
+            postings.computeIfAbsent(gram, key -> new HashSet<>()).add(id);
+        }
+    }
+
+    private IndexedItem removePostings(Long id) {
+        IndexedItem previous = documents.remove(id);
+
+        if (previous != null) {
+            for (String gram : previous.grams()) {
+                Set<Long> ids = postings.get(gram);
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+
+        return previous;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    private record IndexedItem(String name, String description, boolean available) {
+        static IndexedItem of(Item item) {
+            return new IndexedItem(normalize(item.getName()), normalize(item.getDescription()),
+                    Boolean.TRUE.equals(item.getAvailable()));
+        }
+
+        static IndexedItem of(ItemSearchRow row) {
+            return new IndexedItem(normalize(row.getName()), normalize(row.getDescription()),
+                    Boolean.TRUE.equals(row.getAvailable()));
+        }
+
+        boolean matches(String needle) {
+            return name.contains(needle) || description.contains(needle);
+        }
+
+        Set<String> grams() {
+            Set<String> grams = InMemoryItemSearchEngine.grams(name);
+            grams.addAll(InMemoryItemSearchEngine.grams(description));
+            return grams;
+        }
+    }
+}
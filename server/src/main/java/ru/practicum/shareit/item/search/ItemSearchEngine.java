@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+public interface ItemSearchEngine {
+    List<Item> search(String text, long afterId, int offset, int limit);
+
+    void index(Item item);
+
+    void remove(Long itemId);
+}
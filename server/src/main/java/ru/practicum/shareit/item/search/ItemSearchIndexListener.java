@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item.search;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import ru.practicum.shareit.item.model.Item;
+
+public class ItemSearchIndexListener {
+    private final ObjectProvider<ItemSearchEngine> itemSearchEngine;
+
+    public ItemSearchIndexListener(ObjectProvider<ItemSearchEngine> itemSearchEngine) {
+        this.itemSearchEngine = itemSearchEngine;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Item item) {
+        itemSearchEngine.ifAvailable(engine -> engine.index(item));
+    }
+
+    @PostRemove
+    public void onRemove(Item item) {
+        itemSearchEngine.ifAvailable(engine -> engine.remove(item.getId()));
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "shareit.search.rebuild")
+public record ItemSearchRebuildProperties(@DefaultValue("true") boolean enabled,
+                                          @DefaultValue("5m") Duration interval) {
+}
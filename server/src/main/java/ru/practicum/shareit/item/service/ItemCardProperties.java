@@ -0,0 +1,8 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "shareit.item.card")
+public record ItemCardProperties(@DefaultValue("20") int commentLimit) {
+}
@@ -2,21 +2,28 @@ package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.comment.dto.CommentRequestDto;
 import ru.practicum.shareit.item.comment.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pagination.CursorSlice;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
     ItemDto createItem(Long userId, ItemDto itemDto);
 
+    List<ItemDto> createItems(Long userId, List<ItemDto> itemDtos);
+
     ItemDto updateItem(Long itemId, Long userId, ItemDto itemDto);
 
     ItemBookingDto findItemById(Long userId, Long itemId);
 
     List<ItemBookingDto> findUserItems(Long userId);
 
-    List<ItemDto> searchItem(String text);
+    ItemAvailabilityDto findAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to);
+
+    CursorSlice<ItemDto> searchItem(String text, Long after, int from, Integer size);
 
     CommentResponseDto createComment(Long userId, Long itemId, CommentRequestDto commentRequestDto);
 }
@@ -2,19 +2,31 @@ package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import ru.practicum.shareit.booking.dto.mapper.BookingMapper;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingPeriodDto;
+import ru.practicum.shareit.booking.dto.SimplifiedBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.ApprovedBookingIntervals;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.comment.dto.CommentRequestDto;
 import ru.practicum.shareit.item.comment.dto.CommentResponseDto;
 import ru.practicum.shareit.item.comment.dto.mapper.CommentMapper;
 import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
+import ru.practicum.shareit.item.event.ItemUpdatedEvent;
+import ru.practicum.shareit.item.model.ItemSummary;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemSummaryRepository;
+import ru.practicum.shareit.item.repository.OwnerItemSummary;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.pagination.CursorSlice;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
@@ -22,7 +34,10 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.KnownUsers;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -30,31 +45,82 @@ import java.util.stream.Collectors;
 @Slf4j
 @RequiredArgsConstructor
 @Service
+@EnableConfigurationProperties(ItemCardProperties.class)
 public class ItemServiceImpl implements ItemService {
+    private static final Duration DEFAULT_AVAILABILITY_PERIOD = Duration.ofDays(30);
+    private static final Duration MAX_AVAILABILITY_PERIOD = Duration.ofDays(366);
 
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final KnownUsers knownUsers;
+    private final ApprovedBookingIntervals approvedBookingIntervals;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ItemCardProperties itemCardProperties;
+    private final ItemSummaries itemSummaries;
+    private final ItemSummaryRepository itemSummaryRepository;
+    private final Clock clock;
 
     @Override
+    @Transactional
     public ItemDto createItem(Long userId, ItemDto itemDto) {
         User user = validateUser(userId);
+        Item item;
 
         if (itemDto.getRequestId() != null) {
             ItemRequest itemRequest = validateItemRequest(itemDto.getRequestId());
-            return ItemMapper.toItemDto(itemRepository.save(
-                    ItemMapper.toItem(user, itemDto, itemRequest)));
+            item = itemRepository.save(ItemMapper.toItem(user, itemDto, itemRequest));
         } else {
-            return ItemMapper.toItemDto(itemRepository.save(
-                    ItemMapper.toItem(user, itemDto)));
+            item = itemRepository.save(ItemMapper.toItem(user, itemDto));
         }
+
+        itemSummaries.create(List.of(item.getId()));
+
+        return ItemMapper.toItemDto(item);
+    }
+
+    @Override
+    @Transactional
+    public List<ItemDto> createItems(Long userId, List<ItemDto> itemDtos) {
+        if (itemDtos == null || itemDtos.isEmpty()) {
+            log.warn("Список вещей не указан");
+            throw new ValidationException("Список вещей не указан");
+        }
+
+        User user = validateUser(userId);
+        Set<Long> requestIds = itemDtos.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, ItemRequest> itemRequests = itemRequestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, itemRequest -> itemRequest));
+
+        for (Long requestId : requestIds) {
+            if (!itemRequests.containsKey(requestId)) {
+                throw new NotFoundException("Запрос вещи с данным id: " + requestId + " не найден");
+            }
+        }
+
+        List<Item> items = itemDtos.stream()
+                .map(itemDto -> itemDto.getRequestId() != null
+                        ? ItemMapper.toItem(user, itemDto, itemRequests.get(itemDto.getRequestId()))
+                        : ItemMapper.toItem(user, itemDto))
+                .toList();
+
+        List<Item> saved = itemRepository.saveAll(items);
+        itemSummaries.create(saved.stream().map(Item::getId).toList());
+
+        return saved.stream()
+                .map(ItemMapper::toItemDto)
+                .toList();
     }
 
     @Override
     public ItemDto updateItem(Long itemId, Long userId, ItemDto itemDto) {
-        validateUser(userId);
+        knownUsers.require(userId);
         Item item = validateItem(itemId);
 
         if (!Objects.equals(userId, item.getOwner().getId())) {
@@ -72,105 +138,145 @@ public class ItemServiceImpl implements ItemService {
             item.setAvailable(itemDto.getAvailable());
         }
 
-        return ItemMapper.toItemDto(itemRepository.save(item));
+        ItemDto updated = ItemMapper.toItemDto(itemRepository.save(item));
+        eventPublisher.publishEvent(new ItemUpdatedEvent(itemId, userId));
+
+        return updated;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ItemBookingDto findItemById(Long userId, Long itemId) {
-        Item item = validateItem(itemId);
-        validateUser(userId);
+        ItemBookingDto card = ItemMapper.toItemBookingDto(
+                itemRepository.findItemCard(itemId, userId, itemCardProperties.commentLimit()));
 
-        List<CommentResponseDto> comments = commentRepository.findByItemIdIn(List.of(itemId)).stream()
-                .map(CommentMapper::toCommentResponseDto)
-                .collect(Collectors.toList());
-
-        if (!Objects.equals(item.getOwner().getId(), userId)) {
-            return ItemMapper.toItemBookingDto(item, null, null, comments);
+        if (card == null) {
+            throw new NotFoundException("Элемент с данным id: " + itemId + " не найден");
         }
 
-        Sort sortDescByEnd = Sort.by(Sort.Direction.DESC, "end");
-        Sort sortAscByStart = Sort.by(Sort.Direction.ASC, "start");
-
-        Booking lastBooking = bookingRepository.findLastBookingsForItems(List.of(itemId), sortDescByEnd).stream()
-                .findFirst()
-                .orElse(null);
-
-        Booking nextBooking = bookingRepository.findNextBookingsForItems(List.of(itemId), sortAscByStart).stream()
-                .findFirst()
-                .orElse(null);
-
-        return ItemMapper.toItemBookingDto(
-                item,
-                BookingMapper.toSimplifiedBookingDto(lastBooking),
-                BookingMapper.toSimplifiedBookingDto(nextBooking),
-                comments
-        );
+        knownUsers.require(userId);
+
+        return card;
     }
 
+    /**
+     * Читает готовые сводки вещей владельца, а отзывы загружает по сохраненным в сводке id.
+     */
     @Override
+    @Transactional(readOnly = true)
     public List<ItemBookingDto> findUserItems(Long userId) {
-        User owner = validateUser(userId);
-        List<Item> items = itemRepository.findAllByOwner(owner);
+        knownUsers.require(userId);
+        List<OwnerItemSummary> items = itemSummaryRepository.findByOwnerId(userId);
 
-        List<Long> itemIds = items.stream()
-                .map(Item::getId)
-                .collect(Collectors.toList());
+        List<Long> commentIds = items.stream()
+                .flatMap(item -> ItemSummary.parseCommentIds(item.getLatestCommentIds()).stream())
+                .toList();
+        Map<Long, CommentResponseDto> comments = commentIds.isEmpty()
+                ? Map.of()
+                : commentRepository.findCommentDtosByIdIn(commentIds).stream()
+                        .collect(Collectors.toMap(CommentResponseDto::getId, comment -> comment));
 
-        Sort sortDescByEnd = Sort.by(Sort.Direction.DESC, "end");
-        Sort sortAscByStart = Sort.by(Sort.Direction.ASC, "start");
+        return items.stream()
+                .map(item -> ItemMapper.toItemBookingDto(
+                        item,
+                        item.getLastBookingId() == null
+                                ? null
+                                : new SimplifiedBookingDto(item.getLastBookingId(), item.getLastBookerId()),
+                        item.getNextBookingId() == null
+                                ? null
+                                : new SimplifiedBookingDto(item.getNextBookingId(), item.getNextBookerId()),
+                        ItemSummary.parseCommentIds(item.getLatestCommentIds()).stream()
+                                .map(comments::get)
+                                .filter(Objects::nonNull)
+                                .toList()))
+                .collect(Collectors.toList());
+    }
 
-        Map<Long, Booking> lastBookingsMap = bookingRepository.findLastBookingsForItems(itemIds, sortDescByEnd).stream()
-                .collect(Collectors.toMap(lb -> lb.getItem().getId(), lb -> lb));
+    /**
+     * Календарь строится по подтвержденным бронированиям, начиная с текущего момента:
+     * прошедшие периоды забронировать уже нельзя, поэтому {@code from} из прошлого сдвигается на сейчас.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ItemAvailabilityDto findAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to) {
+        knownUsers.require(userId);
+        validateItem(itemId);
+
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime start = from == null || from.isBefore(now) ? now : from;
+        LocalDateTime end = to == null ? start.plus(DEFAULT_AVAILABILITY_PERIOD) : to;
+
+        if (!start.isBefore(end)) {
+            log.warn("Период указан неверно");
+            throw new ValidationException("Период указан неверно");
+        }
+        if (Duration.between(start, end).compareTo(MAX_AVAILABILITY_PERIOD) > 0) {
+            log.warn("Период календаря длиннее {} дней", MAX_AVAILABILITY_PERIOD.toDays());
+            throw new ValidationException("Период календаря не может превышать "
+                    + MAX_AVAILABILITY_PERIOD.toDays() + " дней");
+        }
 
-        Map<Long, Booking> nextBookingsMap = bookingRepository.findNextBookingsForItems(itemIds, sortAscByStart).stream()
-                .collect(Collectors.toMap(nb -> nb.getItem().getId(), nb -> nb));
+        List<BookingPeriodDto> busy = approvedBookingIntervals.busy(itemId, start, end);
+        List<BookingPeriodDto> free = new ArrayList<>(busy.size() + 1);
+        LocalDateTime cursor = start;
 
-        Map<Long, List<CommentResponseDto>> commentsMap = commentRepository.findByItemIdIn(itemIds).stream()
-                .map(CommentMapper::toCommentResponseDto)
-                .collect(Collectors.groupingBy(CommentResponseDto::getItemId));
+        for (BookingPeriodDto period : busy) {
+            if (cursor.isBefore(period.getStart())) {
+                free.add(new BookingPeriodDto(cursor, period.getStart()));
+            }
+            cursor = period.getEnd();
+        }
+        if (cursor.isBefore(end)) {
+            free.add(new BookingPeriodDto(cursor, end));
+        }
 
-        return items.stream()
-                .map(item -> {
-                    Booking lastBooking = lastBookingsMap.get(item.getId());
-                    Booking nextBooking = nextBookingsMap.get(item.getId());
-                    List<CommentResponseDto> comments = commentsMap.getOrDefault(item.getId(), Collections.emptyList());
-
-                    return ItemMapper.toItemBookingDto(
-                            item,
-                            BookingMapper.toSimplifiedBookingDto(lastBooking),
-                            BookingMapper.toSimplifiedBookingDto(nextBooking),
-                            comments
-                    );
-                })
-                .collect(Collectors.toList());
+        return new ItemAvailabilityDto(itemId, start, end, busy, free);
     }
 
     @Override
-    public List<ItemDto> searchItem(String text) {
+    @Transactional(readOnly = true)
+    public CursorSlice<ItemDto> searchItem(String text, Long after, int from, Integer size) {
+        if (from < 0 || size != null && size <= 0) {
+            log.warn("Параметры пагинации указаны неверно");
+            throw new ValidationException("Параметры пагинации указаны неверно");
+        }
+
         if (text == null || text.trim().isEmpty()) {
-            return new ArrayList<>();
+            return CursorSlice.empty();
         }
 
-        return itemRepository.search(text).stream()
-                .filter(item -> Objects.equals(item.getAvailable(), Boolean.TRUE))
+        int limit = size == null ? Integer.MAX_VALUE : size + 1;
+        List<ItemDto> items = itemSearchEngine.search(text, after == null ? 0 : after, after == null ? from : 0, limit)
+                .stream()
                 .map(ItemMapper::toItemDto)
                 .collect(Collectors.toList());
+
+        if (size == null) {
+            return new CursorSlice<>(items, null);
+        }
+
+        return CursorSlice.of(items, size, item -> String.valueOf(item.getId()));
     }
 
     @Override
+    @Transactional
     public CommentResponseDto createComment(Long userId, Long itemId, CommentRequestDto commentRequestDto) {
         User author = validateUser(userId);
         Item item = validateItem(itemId);
         Sort sortDescByEnd = Sort.by(Sort.Direction.DESC, "end");
 
-        Booking booking = bookingRepository.findFirstByBookerIdAndItemIdAndEndIsBefore(userId, itemId, LocalDateTime.now(), sortDescByEnd);
+        Booking booking = bookingRepository.findFirstByBookerIdAndItemIdAndEndIsBefore(userId, itemId, LocalDateTime.now(clock), sortDescByEnd);
 
         if (booking == null) {
             log.warn("Пользователь может оставить комментарий после аренды");
             throw new ValidationException("Пользователь может оставить комментарий после аренды");
         }
 
-        return CommentMapper.toCommentResponseDto(commentRepository.save(CommentMapper.toComment(commentRequestDto, author, item)));
+        CommentResponseDto comment = CommentMapper.toCommentResponseDto(
+                commentRepository.save(CommentMapper.toComment(commentRequestDto, author, item)));
+        itemSummaries.addComment(itemId, comment.getId());
+
+        return comment;
     }
 
     private User validateUser(Long userId) {
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.event.BookingPhasesChangedEvent;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.model.ItemSummary;
+import ru.practicum.shareit.item.repository.ItemSummaryRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Поддерживает {@link ItemSummary} в той же транзакции, что и запись вещи, бронирования или отзыва,
+ * чтобы список вещей владельца читал готовую сводку вместо агрегации по всем бронированиям.
+ * Последнее и ближайшее бронирования выбираются по сохраненной фазе и пересчитываются,
+ * когда {@link ru.practicum.shareit.booking.lifecycle.BookingLifecycle} меняет фазы.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSummaries {
+    private final ItemSummaryRepository itemSummaryRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final ItemCardProperties itemCardProperties;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void create(Collection<Long> itemIds) {
+        itemSummaryRepository.createMissing(itemIds);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void refreshBookings(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+
+        itemSummaryRepository.lockAll(itemIds);
+        itemSummaryRepository.refreshBookings(itemIds);
+    }
+
+    /**
+     * Вызывается после сохранения отзыва; сводка, которой нет (вещь записана в обход сервиса),
+     * строится заново вместе с этим отзывом.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addComment(Long itemId, Long commentId) {
+        Optional<ItemSummary> summary = itemSummaryRepository.findForUpdate(itemId);
+
+        if (summary.isEmpty()) {
+            log.warn("Сводка вещи {} не найдена и будет пересчитана", itemId);
+            rebuild(List.of(itemId));
+            return;
+        }
+
+        summary.get().addComment(commentId, itemCardProperties.commentLimit());
+    }
+
+    /**
+     * Пересчитывает сводки целиком: для вещей, записанных в обход сервисов, и для исправления расхождений.
+     */
+    @Transactional
+    public void rebuild(Collection<Long> itemIds) {
+        itemSummaryRepository.createMissing(itemIds);
+        refreshBookings(itemIds);
+
+        for (ItemSummary summary : itemSummaryRepository.findAllById(itemIds)) {
+            List<Long> latest = commentRepository.findLatestIdsByItemId(summary.getItemId(),
+                    Limit.of(itemCardProperties.commentLimit()));
+
+            summary.setCommentCount(commentRepository.countByItemId(summary.getItemId()));
+            summary.setLatestCommentIds(latest.isEmpty() ? null : latest.stream()
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(",")));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onPhasesChanged(BookingPhasesChangedEvent event) {
+        refreshBookings(bookingRepository.findApprovedItemIds(event.bookingIds()));
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+@AllArgsConstructor
+@Getter
+public class CursorSlice<T> {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private final List<T> content;
+    private final String nextCursor;
+
+    public static <T> CursorSlice<T> empty() {
+        return new CursorSlice<>(List.of(), null);
+    }
+
+    public static <T> CursorSlice<T> of(List<T> rows, int size, Function<T, String> cursor) {
+        if (rows.size() <= size) {
+            return new CursorSlice<>(rows, null);
+        }
+
+        List<T> content = rows.subList(0, size);
+
+        return new CursorSlice<>(content, cursor.apply(content.get(size - 1)));
+    }
+
+    public ResponseEntity<List<T>> toResponseEntity() {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+
+        if (nextCursor != null) {
+            response.header(NEXT_CURSOR_HEADER, nextCursor);
+        }
+
+        return response.body(content);
+    }
+}
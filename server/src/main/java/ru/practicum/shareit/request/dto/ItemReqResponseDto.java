@@ -19,4 +19,8 @@ public class ItemReqResponseDto {
     private Long userId;
     private LocalDateTime created;
     private List<ItemDto> items;
+
+    public ItemReqResponseDto(Long id, String description, Long userId, LocalDateTime created) {
+        this(id, description, userId, created, List.of());
+    }
 }
@@ -1,14 +1,25 @@
 package ru.practicum.shareit.request.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.request.dto.ItemReqResponseDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
-    List<ItemRequest> findByRequestorIdOrderByCreatedDesc(Long requestorId);
+    @Query("SELECT new ru.practicum.shareit.request.dto.ItemReqResponseDto(r.id, r.description, r.requestor.id, " +
+            "r.created) FROM ItemRequest AS r WHERE r.requestor.id = :requestorId ORDER BY r.created DESC")
+    List<ItemReqResponseDto> findDtosByRequestorId(@Param("requestorId") Long requestorId);
 
-    Page<ItemRequest> findByRequestorIdNot(Long requestorId, Pageable pageable);
+    @Query("SELECT new ru.practicum.shareit.request.dto.ItemReqResponseDto(r.id, r.description, r.requestor.id, " +
+            "r.created) FROM ItemRequest AS r WHERE r.requestor.id <> :requestorId")
+    List<ItemReqResponseDto> findDtosByRequestorIdNot(@Param("requestorId") Long requestorId, Pageable pageable);
+
+    @Query("SELECT new ru.practicum.shareit.request.dto.ItemReqResponseDto(r.id, r.description, r.requestor.id, " +
+            "r.created) FROM ItemRequest AS r WHERE r.id = :id")
+    Optional<ItemReqResponseDto> findDtoById(@Param("id") Long id);
 }
@@ -4,18 +4,17 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
-import ru.practicum.shareit.item.dto.mapper.ItemMapper;
-import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemReqRequestDto;
 import ru.practicum.shareit.request.dto.ItemReqResponseDto;
 import ru.practicum.shareit.request.dto.mapper.ItemRequestMapper;
-import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.KnownUsers;
 
 import org.springframework.data.domain.Pageable;
 
@@ -29,6 +28,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final UserRepository userRepository;
     private final ItemRequestRepository itemRequestRepository;
     private final ItemRepository itemRepository;
+    private final KnownUsers knownUsers;
 
     @Override
     public ItemReqResponseDto createItemRequest(Long userId, ItemReqRequestDto itemReqRequestDto) {
@@ -39,39 +39,38 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemReqResponseDto> getRequests(Long userId) {
-        validateUser(userId);
+        knownUsers.require(userId);
 
-        List<ItemRequest> requests = itemRequestRepository.findByRequestorIdOrderByCreatedDesc(userId);
+        List<ItemReqResponseDto> requests = itemRequestRepository.findDtosByRequestorId(userId);
 
         return composeResponseForItemResponseDto(requests);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemReqResponseDto> getRequestsOtherUsers(Long userId, int from, int size) {
-        validateUser(userId);
+        knownUsers.require(userId);
 
         Pageable pageable = PageRequest.of(from / size, size, Sort.by("created").descending());
 
-        List<ItemRequest> requests = itemRequestRepository.findByRequestorIdNot(userId, pageable).getContent();
+        List<ItemReqResponseDto> requests = itemRequestRepository.findDtosByRequestorIdNot(userId, pageable);
 
         return composeResponseForItemResponseDto(requests);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ItemReqResponseDto getRequestWithAnswers(Long userId, Long requestId) {
-        validateUser(userId);
+        knownUsers.require(userId);
 
-        ItemRequest itemRequest = itemRequestRepository.findById(requestId)
+        ItemReqResponseDto itemRequest = itemRequestRepository.findDtoById(requestId)
                 .orElseThrow(() -> new NotFoundException("Запрос вещи с данным id: " + requestId + " не найден"));
 
-        List<Item> items = itemRepository.findAllByItemRequestIdIn(List.of(itemRequest.getId()));
+        itemRequest.setItems(itemRepository.findItemDtosByRequestIdIn(List.of(requestId)));
 
-        return ItemRequestMapper.toItemResponseDto(itemRequest,
-                items
-                        .stream()
-                        .map(ItemMapper::toItemDto)
-                        .collect(Collectors.toList()));
+        return itemRequest;
     }
 
     private User validateUser(Long userId) {
@@ -79,30 +78,24 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 .orElseThrow(() -> new NotFoundException("Пользователь с данным id: " + userId + " не найден"));
     }
 
-    private List<ItemReqResponseDto> composeResponseForItemResponseDto(List<ItemRequest> requests) {
+    private List<ItemReqResponseDto> composeResponseForItemResponseDto(List<ItemReqResponseDto> requests) {
         if (requests == null || requests.isEmpty()) {
             return List.of();
         }
 
         List<Long> requestIds = requests
                 .stream()
-                .map(ItemRequest::getId)
+                .map(ItemReqResponseDto::getId)
                 .collect(Collectors.toList());
 
         if (requestIds.isEmpty()) return List.of();
 
-        List<Item> items = itemRepository.findAllByItemRequestIdIn(requestIds);
-
-        Map<Long, List<ItemDto>> itemsByRequest = items
+        Map<Long, List<ItemDto>> itemsByRequest = itemRepository.findItemDtosByRequestIdIn(requestIds)
                 .stream()
-                .map(ItemMapper::toItemDto)
                 .collect(Collectors.groupingBy(ItemDto::getRequestId));
 
-        return requests.stream()
-                .map(req -> ItemRequestMapper.toItemResponseDto(
-                        req,
-                        itemsByRequest.getOrDefault(req.getId(), List.of())
-                ))
-                .collect(Collectors.toList());
+        requests.forEach(req -> req.setItems(itemsByRequest.getOrDefault(req.getId(), List.of())));
+
+        return requests;
     }
 }
@@ -0,0 +1,127 @@
+package ru.practicum.shareit.user.service;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.TransactionHooks;
+
+import java.util.BitSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Множество id пользователей, существование которых уже проверено в базе.
+ * Удаление на другом экземпляре сюда не доходит, поэтому множество целиком забывается
+ * раз в {@code shareit.known-users.ttl}. Локальное удаление увеличивает эпоху, и проверка,
+ * начатая до него, не возвращает удаленный id после своего коммита.
+ */
+@Component
+@EnableConfigurationProperties(KnownUsersProperties.class)
+public class KnownUsers {
+    private final UserRepository userRepository;
+    private final long ttlNanos;
+    private final BitSet ids = new BitSet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long epoch;
+    private long resetAt = System.nanoTime();
+
+    public KnownUsers(UserRepository userRepository, KnownUsersProperties properties) {
+        this.userRepository = userRepository;
+        this.ttlNanos = properties.ttl().toNanos();
+    }
+
+    public void require(Long userId) {
+        if (!exists(userId)) {
+            throw new NotFoundException("Пользователь с данным id: " + userId + " не найден");
+        }
+    }
+
+    public boolean exists(Long userId) {
+        if (userId == null || userId <= 0) {
+            return false;
+        }
+
+        long observed;
+
+        lock.readLock().lock();
+        try {
+            if (userId <= Integer.MAX_VALUE && !expired() && ids.get(userId.intValue())) {
+                return true;
+            }
+            observed = epoch;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (!userRepository.existsById(userId)) {
+            return false;
+        }
+
+        TransactionHooks.afterCommit(() -> remember(userId, observed));
+        return true;
+    }
+
+    public void remember(Long userId) {
+        if (!indexable(userId)) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            resetIfExpired();
+            ids.set(userId.intValue());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Вызывается после коммита удаления.
+     */
+    public void forget(Long userId) {
+        lock.writeLock().lock();
+        try {
+            epoch++;
+
+            if (indexable(userId)) {
+                ids.clear(userId.intValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remember(Long userId, long observedEpoch) {
+        if (!indexable(userId)) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            resetIfExpired();
+
+            if (epoch == observedEpoch) {
+                ids.set(userId.intValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean expired() {
+        return System.nanoTime() - resetAt >= ttlNanos;
+    }
+
+    private void resetIfExpired() {
+        if (expired()) {
+            ids.clear();
+            resetAt = System.nanoTime();
+        }
+    }
+
+    private static boolean indexable(Long userId) {
+        return userId != null && userId > 0 && userId <= Integer.MAX_VALUE;
+    }
+}
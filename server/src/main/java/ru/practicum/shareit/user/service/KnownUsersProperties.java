@@ -0,0 +1,10 @@
+package ru.practicum.shareit.user.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "shareit.known-users")
+public record KnownUsersProperties(@DefaultValue("1m") Duration ttl) {
+}
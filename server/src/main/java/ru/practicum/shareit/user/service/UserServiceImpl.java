@@ -2,13 +2,16 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exception.InternalServerException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.mapper.UserMapper;
+import ru.practicum.shareit.user.event.UserUpdatedEvent;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.TransactionHooks;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -19,6 +22,8 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final KnownUsers knownUsers;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<UserDto> findAllUsers() {
@@ -38,7 +43,10 @@ public class UserServiceImpl implements UserService {
     public UserDto createUser(UserDto userDto) {
         validateEmail(null, userDto);
 
-        return UserMapper.toUserDto(userRepository.save(UserMapper.toUser(userDto)));
+        UserDto created = UserMapper.toUserDto(userRepository.save(UserMapper.toUser(userDto)));
+        TransactionHooks.afterCommit(() -> knownUsers.remember(created.getId()));
+
+        return created;
     }
 
     @Override
@@ -55,12 +63,16 @@ public class UserServiceImpl implements UserService {
             existingUser.setEmail(updateUserDto.getEmail());
         }
 
-        return UserMapper.toUserDto(userRepository.save(existingUser));
+        UserDto updated = UserMapper.toUserDto(userRepository.save(existingUser));
+        eventPublisher.publishEvent(new UserUpdatedEvent(id));
+
+        return updated;
     }
 
     @Override
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
+        TransactionHooks.afterCommit(() -> knownUsers.forget(id));
     }
 
     private void validateEmail(Long id, UserDto userDto) {
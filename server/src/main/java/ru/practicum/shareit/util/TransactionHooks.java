@@ -0,0 +1,79 @@
+package ru.practicum.shareit.util;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@UtilityClass
+public class TransactionHooks {
+
+    /**
+     * Регистрирует откат изменения in-memory структуры {@code owner} по ключу {@code key}.
+     * Для каждого ключа в рамках транзакции сохраняется только первый откат, поэтому
+     * после rollback структура возвращается в состояние до начала транзакции.
+     */
+    public static void onRollback(Object owner, Object key, Runnable undo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<Object, Runnable> journal = (Map<Object, Runnable>) TransactionSynchronizationManager.getResource(owner);
+
+        if (journal == null) {
+            Map<Object, Runnable> created = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(owner, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(owner);
+                    if (status != STATUS_COMMITTED) {
+                        created.values().forEach(Runnable::run);
+                    }
+                }
+            });
+            journal = created;
+        }
+
+        journal.putIfAbsent(key, undo);
+    }
+
+    /**
+     * Выполняет {@code action} после завершения текущей транзакции (коммита или отката)
+     * или сразу, если транзакции нет.
+     */
+    public static void afterCompletion(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Выполняет {@code action} после успешного коммита текущей транзакции
+     * или сразу, если транзакции нет.
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
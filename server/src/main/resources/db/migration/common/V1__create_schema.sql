@@ -1,9 +1,3 @@
-drop table IF EXISTS users CASCADE;
-drop table IF EXISTS items CASCADE;
-drop table IF EXISTS bookings CASCADE;
-drop table IF EXISTS requests CASCADE;
-drop table IF EXISTS comments CASCADE;
-
 create TABLE IF NOT EXISTS users (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
   name VARCHAR(255) NOT NULL,
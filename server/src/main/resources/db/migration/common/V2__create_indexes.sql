@@ -0,0 +1,14 @@
+create INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+create INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings (booker_id, status, start_date DESC, id DESC);
+create INDEX IF NOT EXISTS idx_bookings_booker_item_end ON bookings (booker_id, item_id, end_date);
+create INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date DESC, id DESC);
+create INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date DESC, id DESC);
+create INDEX IF NOT EXISTS idx_bookings_item_end ON bookings (item_id, end_date);
+
+create INDEX IF NOT EXISTS idx_items_owner ON items (owner_id);
+create INDEX IF NOT EXISTS idx_items_request ON items (item_request_id);
+
+create INDEX IF NOT EXISTS idx_comments_item ON comments (item_id);
+
+create INDEX IF NOT EXISTS idx_requests_requestor_created ON requests (requestor_id, created DESC);
+create INDEX IF NOT EXISTS idx_requests_created ON requests (created DESC);
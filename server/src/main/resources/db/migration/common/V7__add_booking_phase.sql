@@ -0,0 +1,12 @@
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS phase VARCHAR(20) DEFAULT 'UPCOMING' NOT NULL;
+
+UPDATE bookings SET phase = CASE
+    WHEN end_date < CURRENT_TIMESTAMP THEN 'FINISHED'
+    WHEN start_date > CURRENT_TIMESTAMP THEN 'UPCOMING'
+    ELSE 'ACTIVE'
+END;
+
+create INDEX IF NOT EXISTS idx_bookings_booker_phase_start ON bookings (booker_id, phase, start_date DESC, id DESC);
+create INDEX IF NOT EXISTS idx_bookings_item_phase_start ON bookings (item_id, phase, start_date DESC, id DESC);
+create INDEX IF NOT EXISTS idx_bookings_phase_start ON bookings (phase, start_date);
+create INDEX IF NOT EXISTS idx_bookings_phase_end ON bookings (phase, end_date);
@@ -0,0 +1 @@
+create INDEX IF NOT EXISTS idx_comments_item_created ON comments (item_id, created DESC, id DESC);
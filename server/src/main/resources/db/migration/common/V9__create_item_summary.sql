@@ -0,0 +1,29 @@
+create TABLE IF NOT EXISTS item_summary (
+    item_id BIGINT NOT NULL,
+    last_booking_id BIGINT,
+    last_booker_id BIGINT,
+    next_booking_id BIGINT,
+    next_booker_id BIGINT,
+    comment_count BIGINT DEFAULT 0 NOT NULL,
+    latest_comment_ids VARCHAR(1000),
+    CONSTRAINT pk_item_summary PRIMARY KEY (item_id),
+    CONSTRAINT fk_item_summary_item FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE
+);
+
+INSERT INTO item_summary (item_id, comment_count)
+SELECT i.id, (SELECT COUNT(*) FROM comments AS c WHERE c.item_id = i.id)
+FROM items AS i;
+
+UPDATE item_summary SET
+    last_booking_id = (SELECT b.id FROM bookings AS b
+        WHERE b.item_id = item_summary.item_id AND b.status = 'APPROVED' AND b.phase = 'FINISHED'
+        ORDER BY b.end_date DESC, b.id DESC LIMIT 1),
+    last_booker_id = (SELECT b.booker_id FROM bookings AS b
+        WHERE b.item_id = item_summary.item_id AND b.status = 'APPROVED' AND b.phase = 'FINISHED'
+        ORDER BY b.end_date DESC, b.id DESC LIMIT 1),
+    next_booking_id = (SELECT b.id FROM bookings AS b
+        WHERE b.item_id = item_summary.item_id AND b.status = 'APPROVED' AND b.phase = 'UPCOMING'
+        ORDER BY b.start_date, b.id LIMIT 1),
+    next_booker_id = (SELECT b.booker_id FROM bookings AS b
+        WHERE b.item_id = item_summary.item_id AND b.status = 'APPROVED' AND b.phase = 'UPCOMING'
+        ORDER BY b.start_date, b.id LIMIT 1);
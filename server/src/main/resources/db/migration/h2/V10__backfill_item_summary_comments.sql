@@ -0,0 +1,7 @@
+-- 20 = shareit.item.card.comment-limit по умолчанию
+UPDATE item_summary SET latest_comment_ids = (
+    SELECT LISTAGG(CAST(l.id AS VARCHAR), ',') WITHIN GROUP (ORDER BY l.created DESC, l.id DESC)
+    FROM (SELECT c.id, c.item_id, c.created,
+                 ROW_NUMBER() OVER (PARTITION BY c.item_id ORDER BY c.created DESC, c.id DESC) AS rn
+          FROM comments AS c) AS l
+    WHERE l.item_id = item_summary.item_id AND l.rn <= 20);
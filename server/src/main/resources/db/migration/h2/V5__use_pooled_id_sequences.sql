@@ -0,0 +1,17 @@
+-- Пулы идентификаторов по 50 значений: Hibernate выделяет их без обращения к базе и может объединять вставки в пакеты.
+
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+ALTER TABLE requests ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE requests ALTER COLUMN id SET DEFAULT NEXT VALUE FOR requests_seq;
+
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE items ALTER COLUMN id SET DEFAULT NEXT VALUE FOR items_seq;
+
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE bookings ALTER COLUMN id SET DEFAULT NEXT VALUE FOR bookings_seq;
+
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT NEXT VALUE FOR comments_seq;
@@ -0,0 +1,6 @@
+-- 20 = shareit.item.card.comment-limit по умолчанию
+UPDATE item_summary SET latest_comment_ids = (
+    SELECT string_agg(l.id::text, ',' ORDER BY l.created DESC, l.id DESC)
+    FROM (SELECT c.id, c.created FROM comments AS c
+          WHERE c.item_id = item_summary.item_id
+          ORDER BY c.created DESC, c.id DESC LIMIT 20) AS l);
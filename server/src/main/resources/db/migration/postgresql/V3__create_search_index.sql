@@ -0,0 +1,2 @@
+create INDEX IF NOT EXISTS idx_items_search ON items USING GIN
+    (to_tsvector('simple', coalesce(name, '') || ' ' || coalesce(description, '')));
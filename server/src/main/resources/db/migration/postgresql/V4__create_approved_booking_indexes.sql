@@ -0,0 +1,4 @@
+create INDEX IF NOT EXISTS idx_bookings_item_end_approved ON bookings (item_id, end_date DESC, id DESC)
+    WHERE status = 'APPROVED';
+create INDEX IF NOT EXISTS idx_bookings_item_start_approved ON bookings (item_id, start_date, id)
+    WHERE status = 'APPROVED';
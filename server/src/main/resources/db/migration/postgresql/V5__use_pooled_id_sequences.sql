@@ -0,0 +1,25 @@
+-- Пулы идентификаторов по 50 значений: Hibernate выделяет их без обращения к базе и может объединять вставки в пакеты.
+
+CREATE SEQUENCE IF NOT EXISTS requests_seq INCREMENT BY 50;
+SELECT setval('requests_seq', COALESCE((SELECT MAX(id) FROM requests), 0) + 50, false);
+ALTER TABLE requests ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE requests ALTER COLUMN id SET DEFAULT nextval('requests_seq');
+ALTER SEQUENCE requests_seq OWNED BY requests.id;
+
+CREATE SEQUENCE IF NOT EXISTS items_seq INCREMENT BY 50;
+SELECT setval('items_seq', COALESCE((SELECT MAX(id) FROM items), 0) + 50, false);
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE items ALTER COLUMN id SET DEFAULT nextval('items_seq');
+ALTER SEQUENCE items_seq OWNED BY items.id;
+
+CREATE SEQUENCE IF NOT EXISTS bookings_seq INCREMENT BY 50;
+SELECT setval('bookings_seq', COALESCE((SELECT MAX(id) FROM bookings), 0) + 50, false);
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE bookings ALTER COLUMN id SET DEFAULT nextval('bookings_seq');
+ALTER SEQUENCE bookings_seq OWNED BY bookings.id;
+
+CREATE SEQUENCE IF NOT EXISTS comments_seq INCREMENT BY 50;
+SELECT setval('comments_seq', COALESCE((SELECT MAX(id) FROM comments), 0) + 50, false);
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT nextval('comments_seq');
+ALTER SEQUENCE comments_seq OWNED BY comments.id;
@@ -0,0 +1,43 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Данные для тестов, которым нужны уже закоммиченные строки: JDBC минует кэши и слушатели событий
+ * и имитирует записи другого экземпляра. Подключается через {@code @Import(CommittedFixtures.class)}.
+ */
+@TestComponent
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class CommittedFixtures {
+    private final JdbcTemplate jdbcTemplate;
+
+    public Long insert(String sql) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> connection.prepareStatement(sql, new String[]{"id"}), keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+
+    public Long insertBooking(Long itemId, Long bookerId, LocalDateTime start, LocalDateTime end) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement("INSERT INTO bookings " +
+                    "(start_date, end_date, item_id, booker_id, status) VALUES (?, ?, ?, ?, 'APPROVED')",
+                    new String[]{"id"});
+            statement.setTimestamp(1, Timestamp.valueOf(start));
+            statement.setTimestamp(2, Timestamp.valueOf(end));
+            statement.setLong(3, itemId);
+            statement.setLong(4, bookerId);
+            return statement;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+}
@@ -0,0 +1,154 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.KnownUsers;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ActiveProfiles("test")
+@Import(CommittedFixtures.class)
+@SpringBootTest(
+        classes = ShareItApp.class,
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class EntityCacheTest {
+    private final EntityManagerFactory entityManagerFactory;
+    private final UserService userService;
+    private final KnownUsers knownUsers;
+    private final ItemService itemService;
+    private final MeterRegistry meterRegistry;
+    private final JdbcTemplate jdbcTemplate;
+    private final CommittedFixtures fixtures;
+
+    private Statistics statistics;
+    private Long userId;
+
+    /**
+     * Hibernate only populates the cache from loads outside a pending transaction that inserted the row,
+     * so fixtures are committed with plain JDBC and every service call runs in its own transaction.
+     */
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        userId = fixtures.insert("INSERT INTO users (name, email) VALUES ('Макс Иванов', 'Max@mail.ru')");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM items WHERE owner_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+    }
+
+    @Test
+    void repeatedUserLookupShouldHitSecondLevelCache() {
+        userService.findUserById(userId);
+        statistics.clear();
+
+        UserDto result = userService.findUserById(userId);
+
+        assertThat(result.getName()).isEqualTo("Макс Иванов");
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void updatedUserShouldNotBeServedStale() {
+        userService.findUserById(userId);
+
+        userService.updateUser(userId, new UserDto(null, "Максим Иванов", null));
+
+        assertThat(userService.findUserById(userId).getName()).isEqualTo("Максим Иванов");
+    }
+
+    @Test
+    void deletedUserShouldBeEvicted() {
+        userService.findUserById(userId);
+
+        userService.deleteUser(userId);
+
+        assertThrows(NotFoundException.class, () -> userService.findUserById(userId));
+    }
+
+    @Test
+    void updatedItemShouldNotBeServedStale() {
+        Long itemId = fixtures.insert("INSERT INTO items (name, description, available, owner_id) " +
+                "VALUES ('Canon 500d', 'Зеркальный фотоаппарат', true, " + userId + ")");
+
+        itemService.findItemById(userId, itemId);
+
+        itemService.updateItem(itemId, userId, new ItemDto(null, "Canon 600d", null, null, null));
+
+        assertThat(itemService.findItemById(userId, itemId).getName()).isEqualTo("Canon 600d");
+    }
+
+    @Test
+    void itemSummaryWritesShouldKeepEntityCacheWarm() {
+        userService.findUserById(userId);
+
+        itemService.createItem(userId, new ItemDto(null, "Canon 500d", "Зеркальный фотоаппарат", true, null));
+        statistics.clear();
+
+        userService.findUserById(userId);
+
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void itemCardShouldBeReadInOneStatement() {
+        Long itemId = fixtures.insert("INSERT INTO items (name, description, available, owner_id) " +
+                "VALUES ('Canon 500d', 'Зеркальный фотоаппарат', true, " + userId + ")");
+        knownUsers.require(userId);
+        statistics.clear();
+
+        itemService.findItemById(userId, itemId);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void knownUserCheckShouldNotQueryAfterFirstLookup() {
+        knownUsers.require(userId);
+        statistics.clear();
+
+        knownUsers.require(userId);
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        userService.deleteUser(userId);
+
+        assertThrows(NotFoundException.class, () -> knownUsers.require(userId));
+    }
+
+    @Test
+    void cacheMetricsShouldBeRegisteredPerRegion() {
+        userService.findUserById(userId);
+
+        assertThat(meterRegistry.find("cache.gets").tag("cache", User.class.getName()).functionCounters())
+                .isNotEmpty();
+        assertThat(meterRegistry.find("cache.gets").tag("cache", Item.class.getName()).functionCounters())
+                .isNotEmpty();
+    }
+}
@@ -0,0 +1,250 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.status.BookingPhase;
+import ru.practicum.shareit.booking.status.RentalStatus;
+import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemSummaryRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.sql.Connection;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Transactional
+@ActiveProfiles("test")
+@SpringBootTest(
+        classes = ShareItApp.class,
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "ru.practicum.shareit.RepositoryQueryPlanTest$SqlCapture")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class RepositoryQueryPlanTest {
+    private static final int USERS = 200;
+    private static final int ITEMS = 1_000;
+    private static final int BOOKINGS = 5_000;
+    private static final int REQUESTS = 500;
+    private static final int COMMENTS = 1_000;
+
+    private final EntityManager em;
+    private final JdbcTemplate jdbcTemplate;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final CommentRepository commentRepository;
+    private final ItemSummaryRepository itemSummaryRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void seed() {
+        LocalDateTime now = LocalDateTime.now();
+
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, name, email) VALUES (?, ?, ?)",
+                rows(USERS, i -> new Object[]{(long) i, "user" + i, "user" + i + "@mail.ru"}));
+        jdbcTemplate.batchUpdate("INSERT INTO requests (id, description, requestor_id, created) VALUES (?, ?, ?, ?)",
+                rows(REQUESTS, i -> new Object[]{(long) i, "request" + i, (long) (i % USERS + 1),
+                        Timestamp.valueOf(now.minusHours(i))}));
+        jdbcTemplate.batchUpdate("INSERT INTO items (id, name, description, available, owner_id, item_request_id) " +
+                        "VALUES (?, ?, ?, ?, ?, ?)",
+                rows(ITEMS, i -> new Object[]{(long) i, "item" + i, "description" + i, i % 2 == 0,
+                        (long) (i % USERS + 1), i % 10 == 0 ? (long) (i % REQUESTS + 1) : null}));
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                        "VALUES (?, ?, ?, ?, ?, ?)",
+                rows(BOOKINGS, i -> new Object[]{(long) i, Timestamp.valueOf(now.plusDays(i % 60 - 30)),
+                        Timestamp.valueOf(now.plusDays(i % 60 - 28)), (long) (i % ITEMS + 1),
+                        (long) ((i * 7) % USERS + 1), RentalStatus.values()[i % RentalStatus.values().length].name()}));
+        jdbcTemplate.batchUpdate("INSERT INTO comments (id, text, item_id, author_id, created) VALUES (?, ?, ?, ?, ?)",
+                rows(COMMENTS, i -> new Object[]{(long) i, "comment" + i, (long) (i % ITEMS + 1),
+                        (long) (i % USERS + 1), Timestamp.valueOf(now.minusDays(i % 30))}));
+
+        jdbcTemplate.update("INSERT INTO item_summary (item_id) SELECT id FROM items");
+
+        em.clear();
+        user = em.getReference(User.class, 1L);
+    }
+
+    @Test
+    void bookerBookingQueriesShouldUseIndexes() {
+        BookingCursor cursor = BookingCursor.FIRST;
+        Limit limit = Limit.of(11);
+
+        assertIndexed(() -> bookingRepository.findByBookerAndPhase(user, BookingPhase.ACTIVE,
+                cursor.start(), cursor.id(), limit));
+        assertIndexed(() -> bookingRepository.findByBookerAndStatus(user, RentalStatus.WAITING,
+                cursor.start(), cursor.id(), limit));
+        assertIndexed(() -> bookingRepository.findByBooker(user, cursor.start(), cursor.id(), limit));
+        assertIndexed(() -> bookingRepository.findFirstByBookerIdAndItemIdAndEndIsBefore(1L, 1L,
+                LocalDateTime.now(), Sort.by(Sort.Direction.DESC, "end")));
+    }
+
+    @Test
+    void ownerBookingQueriesShouldUseIndexes() {
+        BookingCursor cursor = BookingCursor.FIRST;
+        Limit limit = Limit.of(11);
+
+        assertIndexed(() -> bookingRepository.findByItemOwnerAndPhase(user, BookingPhase.ACTIVE,
+                cursor.start(), cursor.id(), limit));
+        assertIndexed(() -> bookingRepository.findByItemOwnerAndStatus(user, RentalStatus.WAITING,
+                cursor.start(), cursor.id(), limit));
+        assertIndexed(() -> bookingRepository.findByItemOwner(user, cursor.start(), cursor.id(), limit));
+        assertIndexed(() -> bookingRepository.findApprovedItemIds(List.of(1L, 2L, 3L)));
+        assertIndexed(() -> bookingRepository.findStartingBetween(LocalDateTime.now(),
+                LocalDateTime.now().plusMinutes(10)));
+        assertIndexed(() -> bookingRepository.findEndingBetween(LocalDateTime.now(),
+                LocalDateTime.now().plusMinutes(10)));
+    }
+
+    @Test
+    void decisionIntervalAndLifecycleQueriesShouldUseIndexes() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = List.of(1L, 2L, 3L);
+
+        assertIndexed(() -> bookingRepository.findWithItemAndBookerById(1L));
+        assertIndexed(() -> bookingRepository.lockByIds(ids));
+        assertIndexed(() -> bookingRepository.findDecisionCandidates(ids));
+        assertIndexed(() -> bookingRepository.decideWaitingBookings(ids, 1L, RentalStatus.APPROVED));
+        assertIndexed(() -> bookingRepository.findApprovedIntervals(1L, now));
+        assertIndexed(() -> bookingRepository.findApprovedIntervalsBetween(1L, now, now.plusDays(7)));
+        assertIndexed(() -> bookingRepository.findApprovedIntervalsByItemIds(ids, now, now.plusDays(7)));
+        assertIndexed(() -> bookingRepository.findStartedIds(now));
+        assertIndexed(() -> bookingRepository.findEndedIds(now));
+        assertIndexed(() -> bookingRepository.activateBookings(ids, now));
+        assertIndexed(() -> bookingRepository.finishBookings(ids, now));
+    }
+
+    @Test
+    void participantAndSummaryQueriesShouldUseIndexes() {
+        assertIndexed(() -> bookingRepository.findParticipants(List.of(1L, 2L, 3L)));
+        assertIndexed(() -> bookingRepository.findBookerIdsByItemId(1L));
+        assertIndexed(() -> bookingRepository.findItemOwnerIdsByBookerId(1L));
+        assertIndexed(() -> itemSummaryRepository.createMissing(List.of(1L, 2L, 3L)));
+        assertIndexed(() -> itemSummaryRepository.findForUpdate(1L));
+    }
+
+    @Test
+    void itemCommentRequestAndUserQueriesShouldUseIndexes() {
+        assertIndexed(() -> itemRepository.findByIdInAndAvailableTrue(List.of(2L, 4L, 6L), Sort.by("id")));
+        assertIndexed(() -> itemRepository.findSearchRowsAfter(500L, Limit.of(500)));
+        assertIndexed(() -> itemRepository.findItemDtosByRequestIdIn(List.of(1L, 2L, 3L)));
+        assertIndexed(() -> commentRepository.findCommentDtosByIdIn(List.of(1L, 2L, 3L)));
+        assertIndexed(() -> commentRepository.findLatestIdsByItemId(1L, Limit.of(20)));
+        assertIndexed(() -> commentRepository.countByItemId(1L));
+        assertIndexed(() -> itemSummaryRepository.findByOwnerId(1L));
+        assertIndexed(() -> itemSummaryRepository.lockAll(List.of(1L, 2L, 3L)));
+        assertIndexed(() -> itemSummaryRepository.refreshBookings(List.of(1L, 2L, 3L)));
+        assertIndexed(() -> itemRepository.findItemCard(1L, 1L, 20));
+        assertIndexed(() -> itemRequestRepository.findDtosByRequestorId(1L));
+        assertIndexed(() -> itemRequestRepository.findDtoById(1L));
+        assertIndexed(() -> itemRequestRepository.findDtosByRequestorIdNot(1L,
+                PageRequest.of(0, 10, Sort.by("created").descending())));
+        assertIndexed(() -> userRepository.findByEmail("user1@mail.ru"));
+    }
+
+    @Test
+    void batchDecisionShouldLockOnlyBookingRows() {
+        SqlCapture.STATEMENTS.clear();
+        bookingRepository.lockByIds(List.of(1L, 2L, 3L));
+
+        assertThat(SqlCapture.STATEMENTS).singleElement().satisfies(sql -> {
+            assertThat(sql).containsIgnoringCase("for update");
+            assertThat(sql).doesNotContainIgnoringCase("items");
+        });
+
+        SqlCapture.STATEMENTS.clear();
+        bookingRepository.findDecisionCandidates(List.of(1L, 2L, 3L));
+
+        assertThat(SqlCapture.STATEMENTS).singleElement()
+                .satisfies(sql -> assertThat(sql).doesNotContainIgnoringCase("for update"));
+    }
+
+    private void assertIndexed(Runnable query) {
+        SqlCapture.STATEMENTS.clear();
+        query.run();
+        List<String> statements = new ArrayList<>(SqlCapture.STATEMENTS);
+
+        assertThat(statements).isNotEmpty();
+
+        for (String sql : statements) {
+            String plan = explain(sql);
+
+            assertThat(plan).as("План запроса %s", sql).doesNotContainIgnoringCase("tableScan");
+        }
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                bindSampleParameters(statement);
+
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    StringBuilder plan = new StringBuilder();
+
+                    while (resultSet.next()) {
+                        plan.append(resultSet.getString(1));
+                    }
+
+                    return plan.toString();
+                }
+            }
+        });
+    }
+
+    private static void bindSampleParameters(PreparedStatement statement) throws SQLException {
+        ParameterMetaData metaData = statement.getParameterMetaData();
+        Map<Integer, Object> samples = Map.of(
+                Types.TIMESTAMP, Timestamp.valueOf(LocalDateTime.now()),
+                Types.VARCHAR, RentalStatus.WAITING.name(),
+                Types.BOOLEAN, true,
+                Types.INTEGER, 10);
+
+        for (int i = 1; i <= metaData.getParameterCount(); i++) {
+            statement.setObject(i, samples.getOrDefault(metaData.getParameterType(i), 1L));
+        }
+    }
+
+    private static List<Object[]> rows(int count, IntFunction<Object[]> row) {
+        return IntStream.rangeClosed(1, count).mapToObj(row).toList();
+    }
+
+    public static class SqlCapture implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -11,12 +11,17 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionRequestDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.status.BookingDecisionOutcome;
+import ru.practicum.shareit.booking.status.BookingState;
 import ru.practicum.shareit.booking.status.RentalStatus;
 import ru.practicum.shareit.error.ErrorHandler;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pagination.CursorSlice;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.nio.charset.StandardCharsets;
@@ -26,8 +31,10 @@ import java.util.List;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -167,6 +174,25 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.status", is("REJECTED")));
     }
 
+    @Test
+    void mustUpdateBookingsInBatch() throws Exception {
+        when(bookingService.updateBookings(eq(1L), any(BookingDecisionRequestDto.class)))
+                .thenReturn(List.of(
+                        new BookingDecisionDto(1L, BookingDecisionOutcome.APPROVED),
+                        new BookingDecisionDto(2L, BookingDecisionOutcome.NOT_OWNER)));
+
+        mvc.perform(patch("/bookings/batch")
+                        .content(mapper.writeValueAsString(new BookingDecisionRequestDto(List.of(1L, 2L), true)))
+                        .header("X-Sharer-User-Id", "1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].bookingId", is(1)))
+                .andExpect(jsonPath("$[0].outcome", is("APPROVED")))
+                .andExpect(jsonPath("$[1].bookingId", is(2)))
+                .andExpect(jsonPath("$[1].outcome", is("NOT_OWNER")));
+    }
+
     @Test
     void mustReturnBookingById() throws Exception {
         when(bookingService.findBookingById(1L, 1L))
@@ -201,8 +227,8 @@ public class BookingControllerTest {
     void mustReturnUserBookings() throws Exception {
         List<BookingResponseDto> bookings = List.of(bookingResponseDto, bookingResponseDto2);
 
-        when(bookingService.findUserBookings(1L, "ALL"))
-                .thenReturn(bookings);
+        when(bookingService.findUserBookings(1L, BookingState.ALL, null, null))
+                .thenReturn(new CursorSlice<>(bookings, null));
 
         mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", 1L)
@@ -248,8 +274,8 @@ public class BookingControllerTest {
     void mustReturnOwnerReservedItems() throws Exception {
         List<BookingResponseDto> bookings = List.of(bookingResponseDto, bookingResponseDto2);
 
-        when(bookingService.findOwnerReservedItems(1L, "ALL"))
-                .thenReturn(bookings);
+        when(bookingService.findOwnerReservedItems(1L, BookingState.ALL, null, null))
+                .thenReturn(new CursorSlice<>(bookings, null));
 
         mvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", 1L)
@@ -290,4 +316,16 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$[1].booker").doesNotExist())
                 .andExpect(jsonPath("$[1].status", is("APPROVED")));
     }
+
+    @Test
+    void unknownStateShouldBeRejected() throws Exception {
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("state", "UNSUPPORTED_STATUS")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.description", is("Значение параметра state указано неверно: UNSUPPORTED_STATUS")));
+
+        verifyNoInteractions(bookingService);
+    }
 }
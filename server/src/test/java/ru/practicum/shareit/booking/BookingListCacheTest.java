@@ -0,0 +1,173 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.CommittedFixtures;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.event.BookingPhasesChangedEvent;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.status.BookingState;
+import ru.practicum.shareit.booking.status.RentalStatus;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Каждый вызов сервиса коммитится отдельно, потому что записи кэша сбрасываются после коммита.
+ */
+@ActiveProfiles("test")
+@Import(CommittedFixtures.class)
+@SpringBootTest(
+        classes = ShareItApp.class,
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "shareit.booking.list-cache.enabled=true")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingListCacheTest {
+    private final BookingService bookingService;
+    private final ItemService itemService;
+    private final UserService userService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final CommittedFixtures fixtures;
+
+    private Long ownerId;
+    private Long bookerId;
+    private Long guestId;
+    private Long itemId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = fixtures.insert("INSERT INTO users (name, email) VALUES ('Владимир Петухов', 'Vladimir@mail.ru')");
+        bookerId = fixtures.insert("INSERT INTO users (name, email) VALUES ('Петр Васильев', 'Petr@mail.ru')");
+        guestId = fixtures.insert("INSERT INTO users (name, email) VALUES ('Иван Смирнов', 'Ivan@mail.ru')");
+        itemId = fixtures.insert("INSERT INTO items (name, description, available, owner_id) " +
+                "VALUES ('Canon 500d', 'Зеркальный фотоаппарат', true, " + ownerId + ")");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM bookings WHERE item_id = ?", itemId);
+        jdbcTemplate.update("DELETE FROM items WHERE id = ?", itemId);
+        jdbcTemplate.update("DELETE FROM users WHERE id IN (?, ?, ?)", ownerId, bookerId, guestId);
+    }
+
+    @Test
+    void repeatedListingShouldBeServedFromCache() {
+        assertThat(bookerBookings(BookingState.ALL)).isEmpty();
+
+        jdbcTemplate.update("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) " +
+                "VALUES (?, ?, ?, ?, 'WAITING')", LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2),
+                itemId, bookerId);
+
+        assertThat(bookerBookings(BookingState.ALL)).isEmpty();
+    }
+
+    @Test
+    void createdBookingShouldInvalidateBookerAndOwnerLists() {
+        assertThat(bookerBookings(BookingState.ALL)).isEmpty();
+        assertThat(ownerBookings(BookingState.WAITING)).isEmpty();
+
+        BookingResponseDto booking = createBooking();
+
+        assertThat(bookerBookings(BookingState.ALL)).extracting(BookingResponseDto::getId)
+                .containsExactly(booking.getId());
+        assertThat(ownerBookings(BookingState.WAITING)).extracting(BookingResponseDto::getId)
+                .containsExactly(booking.getId());
+    }
+
+    @Test
+    void bookingChangeShouldKeepOtherUsersLists() {
+        assertThat(bookingService.findUserBookings(guestId, BookingState.ALL, null, 10).getContent()).isEmpty();
+
+        jdbcTemplate.update("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) " +
+                "VALUES (?, ?, ?, ?, 'WAITING')", LocalDateTime.now().plusDays(3), LocalDateTime.now().plusDays(4),
+                itemId, guestId);
+        createBooking();
+
+        assertThat(bookingService.findUserBookings(guestId, BookingState.ALL, null, 10).getContent()).isEmpty();
+        assertThat(bookerBookings(BookingState.ALL)).hasSize(1);
+    }
+
+    @Test
+    void approvalShouldInvalidateBookerAndOwnerLists() {
+        BookingResponseDto booking = createBooking();
+        assertThat(bookerBookings(BookingState.WAITING)).hasSize(1);
+        assertThat(ownerBookings(BookingState.WAITING)).hasSize(1);
+
+        bookingService.updateBooking(ownerId, booking.getId(), true);
+
+        assertThat(bookerBookings(BookingState.WAITING)).isEmpty();
+        assertThat(ownerBookings(BookingState.WAITING)).isEmpty();
+        assertThat(bookerBookings(BookingState.ALL)).extracting(BookingResponseDto::getStatus)
+                .containsExactly(RentalStatus.APPROVED);
+    }
+
+    @Test
+    void itemUpdateShouldInvalidateBookerLists() {
+        createBooking();
+        assertThat(bookerBookings(BookingState.ALL)).extracting(b -> b.getItem().getName())
+                .containsExactly("Canon 500d");
+
+        itemService.updateItem(itemId, ownerId, new ItemDto(null, "Canon 600d", null, null, null));
+
+        assertThat(bookerBookings(BookingState.ALL)).extracting(b -> b.getItem().getName())
+                .containsExactly("Canon 600d");
+    }
+
+    @Test
+    void userUpdateShouldInvalidateOwnerLists() {
+        createBooking();
+        assertThat(ownerBookings(BookingState.ALL)).extracting(b -> b.getBooker().getName())
+                .containsExactly("Петр Васильев");
+
+        userService.updateUser(bookerId, new UserDto(null, "Петр Сидоров", null));
+
+        assertThat(ownerBookings(BookingState.ALL)).extracting(b -> b.getBooker().getName())
+                .containsExactly("Петр Сидоров");
+    }
+
+    @Test
+    void phaseChangeShouldMoveBookingBetweenTimeStates() {
+        BookingResponseDto booking = createBooking();
+        assertThat(bookerBookings(BookingState.FUTURE)).hasSize(1);
+        assertThat(ownerBookings(BookingState.CURRENT)).isEmpty();
+
+        jdbcTemplate.update("UPDATE bookings SET phase = 'ACTIVE' WHERE id = ?", booking.getId());
+        eventPublisher.publishEvent(new BookingPhasesChangedEvent(List.of(booking.getId())));
+
+        assertThat(bookerBookings(BookingState.FUTURE)).isEmpty();
+        assertThat(ownerBookings(BookingState.CURRENT)).extracting(BookingResponseDto::getId)
+                .containsExactly(booking.getId());
+    }
+
+    private BookingResponseDto createBooking() {
+        BookingRequestDto request = new BookingRequestDto(itemId, LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2));
+
+        return bookingService.createBooking(bookerId, request);
+    }
+
+    private List<BookingResponseDto> bookerBookings(BookingState state) {
+        return bookingService.findUserBookings(bookerId, state, null, 10).getContent();
+    }
+
+    private List<BookingResponseDto> ownerBookings(BookingState state) {
+        return bookingService.findOwnerReservedItems(ownerId, state, null, 10).getContent();
+    }
+}
@@ -80,7 +80,8 @@ public class BookingMapperTest {
                 LocalDateTime.now().plusDays(1),
                 item,
                 owner,
-                RentalStatus.APPROVED
+                RentalStatus.APPROVED,
+                null
         );
 
         SimplifiedBookingDto dto = BookingMapper.toSimplifiedBookingDto(booking);
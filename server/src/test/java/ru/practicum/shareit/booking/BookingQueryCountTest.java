@@ -0,0 +1,170 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.dto.BookingDecisionRequestDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.status.BookingPhase;
+import ru.practicum.shareit.booking.status.BookingState;
+import ru.practicum.shareit.booking.status.RentalStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Transactional
+@ActiveProfiles("test")
+@SpringBootTest(
+        classes = ShareItApp.class,
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingQueryCountTest {
+    private final EntityManager em;
+    private final BookingService bookingService;
+
+    private User owner;
+    private User booker;
+    private final List<Booking> bookings = new ArrayList<>();
+
+    @ParameterizedTest
+    @EnumSource(BookingState.class)
+    void userBookingsShouldUseConstantStatementCount(BookingState state) {
+        seed(1);
+        long single = countStatements(() -> bookingService.findUserBookings(booker.getId(), state, null, 10));
+
+        seed(8);
+        long many = countStatements(() -> bookingService.findUserBookings(booker.getId(), state, null, 10));
+
+        assertThat(many).isEqualTo(single);
+    }
+
+    @ParameterizedTest
+    @EnumSource(BookingState.class)
+    void ownerBookingsShouldUseConstantStatementCount(BookingState state) {
+        seed(1);
+        long single = countStatements(() -> bookingService.findOwnerReservedItems(owner.getId(), state, null, 10));
+
+        seed(8);
+        long many = countStatements(() -> bookingService.findOwnerReservedItems(owner.getId(), state, null, 10));
+
+        assertThat(many).isEqualTo(single);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 8})
+    void bookingByIdShouldNotLoadAssociationsLazily(int count) {
+        seed(count);
+
+        long statements = countStatements(() -> bookingService.findBookingById(owner.getId(), bookings.get(0).getId()));
+
+        assertThat(statements).isEqualTo(2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void batchDecisionShouldUseConstantStatementCount(boolean approved) {
+        seed(1);
+        long single = countStatements(() -> bookingService.updateBookings(owner.getId(),
+                new BookingDecisionRequestDto(waitingIds(), approved)));
+
+        seed(8);
+        long many = countStatements(() -> bookingService.updateBookings(owner.getId(),
+                new BookingDecisionRequestDto(waitingIds(), approved)));
+
+        assertThat(many).isEqualTo(single);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = BookingState.class, names = {"ALL", "PAST"})
+    void listingsShouldNotLoadManagedEntities(BookingState state) {
+        seed(8);
+        em.clear();
+
+        bookingService.findUserBookings(booker.getId(), state, null, 10);
+        bookingService.findOwnerReservedItems(owner.getId(), state, null, 10);
+
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    private void seed(int count) {
+        em.createQuery("DELETE FROM Booking").executeUpdate();
+        em.createQuery("DELETE FROM Item").executeUpdate();
+        em.createQuery("DELETE FROM User").executeUpdate();
+        bookings.clear();
+
+        owner = user("Владимир Петухов", "Vladimir@mail.ru");
+        booker = user("Петр Васильев", "Petr@mail.ru");
+        RentalStatus[] statuses = {RentalStatus.APPROVED, RentalStatus.WAITING, RentalStatus.REJECTED};
+        int[][] periods = {{-5, -2}, {-1, 1}, {2, 5}};
+
+        for (int i = 0; i < count; i++) {
+            Item item = new Item();
+            item.setName("Вещь " + i);
+            item.setDescription("Описание " + i);
+            item.setAvailable(true);
+            item.setOwner(owner);
+            em.persist(item);
+
+            User itemBooker = i % 2 == 0 ? booker : user("Гость " + i, "guest" + i + "@mail.ru");
+
+            for (int j = 0; j < statuses.length; j++) {
+                for (int[] period : periods) {
+                    Booking booking = new Booking();
+                    booking.setItem(item);
+                    booking.setBooker(itemBooker);
+                    booking.setStart(LocalDateTime.now().plusDays(period[0]).plusMinutes(i));
+                    booking.setEnd(LocalDateTime.now().plusDays(period[1]).plusMinutes(i));
+                    booking.setStatus(statuses[j]);
+                    booking.setPhase(BookingPhase.at(booking.getStart(), booking.getEnd(), LocalDateTime.now()));
+                    em.persist(booking);
+                    bookings.add(booking);
+                }
+            }
+        }
+
+        em.flush();
+        em.clear();
+    }
+
+    private List<Long> waitingIds() {
+        return bookings.stream()
+                .filter(booking -> booking.getStatus() == RentalStatus.WAITING)
+                .map(Booking::getId)
+                .toList();
+    }
+
+    private User user(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        em.persist(user);
+        return user;
+    }
+
+    private long countStatements(Runnable call) {
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        em.clear();
+        statistics.clear();
+
+        call.run();
+
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,18 +10,29 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionRequestDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingListQueries;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.status.BookingDecisionOutcome;
+import ru.practicum.shareit.booking.status.BookingPhase;
+import ru.practicum.shareit.booking.status.BookingState;
 import ru.practicum.shareit.booking.status.RentalStatus;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSummary;
+import ru.practicum.shareit.item.repository.ItemSummaryRepository;
+import ru.practicum.shareit.item.service.ItemSummaries;
+import ru.practicum.shareit.pagination.CursorSlice;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -34,6 +46,9 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 public class BookingServiceTest {
     private final EntityManager em;
     private final BookingService bookingService;
+    private final MeterRegistry meterRegistry;
+    private final ItemSummaries itemSummaries;
+    private final ItemSummaryRepository itemSummaryRepository;
 
     private Long ownerId;
     private Long bookerId;
@@ -68,6 +83,7 @@ public class BookingServiceTest {
         booking.setItem(item);
         booking.setBooker(booker);
         booking.setStatus(RentalStatus.WAITING);
+        booking.setPhase(BookingPhase.at(booking.getStart(), booking.getEnd(), LocalDateTime.now()));
         em.persist(booking);
 
         em.flush();
@@ -87,6 +103,18 @@ public class BookingServiceTest {
         assertThat(result.getStatus()).isEqualTo(RentalStatus.APPROVED);
     }
 
+    @Test
+    void approvalShouldUpdateItemSummary() {
+        itemSummaries.create(List.of(itemId));
+
+        bookingService.updateBooking(ownerId, bookingId, true);
+
+        ItemSummary summary = itemSummaryRepository.findById(itemId).orElseThrow();
+        assertThat(summary.getNextBookingId()).isEqualTo(bookingId);
+        assertThat(summary.getNextBookerId()).isEqualTo(bookerId);
+        assertThat(summary.getLastBookingId()).isNull();
+    }
+
     @Test
     void shouldRejectBooking() {
         BookingResponseDto result = bookingService.updateBooking(ownerId, bookingId, false);
@@ -116,6 +144,142 @@ public class BookingServiceTest {
         assertThat(exception.getMessage()).isEqualTo("Нельзя изменить статус: бронирование уже подтверждено или отклонено");
     }
 
+    @Test
+    void shouldDecideBookingsInBatchWithOutcomePerId() {
+        BookingRequestDto dto = new BookingRequestDto(
+                itemId,
+                LocalDateTime.now().plusDays(3),
+                LocalDateTime.now().plusDays(4)
+        );
+        Long secondId = bookingService.createBooking(bookerId, dto).getId();
+        Long decidedId = bookingService.createBooking(bookerId, new BookingRequestDto(
+                itemId,
+                LocalDateTime.now().plusDays(5),
+                LocalDateTime.now().plusDays(6)
+        )).getId();
+        bookingService.updateBooking(ownerId, decidedId, false);
+
+        List<BookingDecisionDto> result = bookingService.updateBookings(ownerId,
+                new BookingDecisionRequestDto(List.of(bookingId, secondId, decidedId, 999L, bookingId), true));
+
+        assertThat(result.stream().map(BookingDecisionDto::getOutcome).toList()).isEqualTo(List.of(
+                BookingDecisionOutcome.APPROVED,
+                BookingDecisionOutcome.APPROVED,
+                BookingDecisionOutcome.ALREADY_DECIDED,
+                BookingDecisionOutcome.NOT_FOUND));
+
+        em.clear();
+        assertThat(em.find(Booking.class, bookingId).getStatus()).isEqualTo(RentalStatus.APPROVED);
+        assertThat(em.find(Booking.class, secondId).getStatus()).isEqualTo(RentalStatus.APPROVED);
+        assertThat(em.find(Booking.class, decidedId).getStatus()).isEqualTo(RentalStatus.REJECTED);
+    }
+
+    @Test
+    void shouldNotDecideForeignBookingsInBatch() {
+        List<BookingDecisionDto> result = bookingService.updateBookings(bookerId,
+                new BookingDecisionRequestDto(List.of(bookingId), false));
+
+        assertThat(result.get(0).getOutcome()).isEqualTo(BookingDecisionOutcome.NOT_OWNER);
+
+        em.clear();
+        assertThat(em.find(Booking.class, bookingId).getStatus()).isEqualTo(RentalStatus.WAITING);
+    }
+
+    @Test
+    void shouldRejectBookingOverlappingApprovedOne() {
+        bookingService.updateBooking(ownerId, bookingId, true);
+        BookingRequestDto overlapping = new BookingRequestDto(
+                itemId,
+                LocalDateTime.now().plusHours(12),
+                LocalDateTime.now().plusDays(2)
+        );
+
+        ValidationException exception = assertThrows(
+                ValidationException.class,
+                () -> bookingService.createBooking(bookerId, overlapping)
+        );
+
+        assertThat(exception.getMessage()).isEqualTo("Вещь уже забронирована на этот период");
+    }
+
+    @Test
+    void shouldNotApproveOverlapWithApprovalMadeElsewhere() {
+        Booking waiting = em.find(Booking.class, bookingId);
+        assertThat(bookingService.createBooking(bookerId, new BookingRequestDto(itemId,
+                waiting.getEnd().plusDays(1), waiting.getEnd().plusDays(2))).getId()).isNotNull();
+
+        Booking approvedElsewhere = new Booking();
+        approvedElsewhere.setStart(waiting.getStart().plusHours(1));
+        approvedElsewhere.setEnd(waiting.getStart().plusHours(2));
+        approvedElsewhere.setItem(waiting.getItem());
+        approvedElsewhere.setBooker(waiting.getBooker());
+        approvedElsewhere.setStatus(RentalStatus.APPROVED);
+        approvedElsewhere.setPhase(BookingPhase.at(approvedElsewhere.getStart(), approvedElsewhere.getEnd(), LocalDateTime.now()));
+        em.persist(approvedElsewhere);
+        em.flush();
+
+        assertThrows(ValidationException.class, () -> bookingService.updateBooking(ownerId, bookingId, true));
+    }
+
+    @Test
+    void shouldAllowBookingRightAfterApprovedOne() {
+        Booking approved = em.find(Booking.class, bookingId);
+        bookingService.updateBooking(ownerId, bookingId, true);
+
+        BookingResponseDto result = bookingService.createBooking(bookerId,
+                new BookingRequestDto(itemId, approved.getEnd(), approved.getEnd().plusDays(1)));
+
+        assertThat(result.getStatus()).isEqualTo(RentalStatus.WAITING);
+    }
+
+    @Test
+    void shouldNotApproveOverlappingBookings() {
+        Long overlappingId = bookingService.createBooking(bookerId, new BookingRequestDto(
+                itemId,
+                LocalDateTime.now().plusHours(12),
+                LocalDateTime.now().plusDays(2)
+        )).getId();
+        Long anotherId = bookingService.createBooking(bookerId, new BookingRequestDto(
+                itemId,
+                LocalDateTime.now().plusHours(6),
+                LocalDateTime.now().plusHours(8)
+        )).getId();
+
+        bookingService.updateBooking(ownerId, bookingId, true);
+
+        assertThrows(ValidationException.class, () -> bookingService.updateBooking(ownerId, overlappingId, true));
+
+        List<BookingDecisionDto> result = bookingService.updateBookings(ownerId,
+                new BookingDecisionRequestDto(List.of(anotherId, overlappingId), true));
+
+        assertThat(result.get(0).getOutcome()).isEqualTo(BookingDecisionOutcome.CONFLICT);
+        assertThat(result.get(1).getOutcome()).isEqualTo(BookingDecisionOutcome.CONFLICT);
+    }
+
+    @Test
+    void shouldDecideConflictingBookingsInOneBatch() {
+        Long overlappingId = bookingService.createBooking(bookerId, new BookingRequestDto(
+                itemId,
+                LocalDateTime.now().plusHours(12),
+                LocalDateTime.now().plusDays(2)
+        )).getId();
+
+        List<BookingDecisionDto> result = bookingService.updateBookings(ownerId,
+                new BookingDecisionRequestDto(List.of(bookingId, overlappingId), true));
+
+        assertThat(result.get(0).getOutcome()).isEqualTo(BookingDecisionOutcome.APPROVED);
+        assertThat(result.get(1).getOutcome()).isEqualTo(BookingDecisionOutcome.CONFLICT);
+
+        em.clear();
+        assertThat(em.find(Booking.class, overlappingId).getStatus()).isEqualTo(RentalStatus.WAITING);
+    }
+
+    @Test
+    void shouldThrowExceptionWhenBatchDecisionIsEmpty() {
+        assertThrows(ValidationException.class, () -> bookingService.updateBookings(ownerId,
+                new BookingDecisionRequestDto(List.of(), true)));
+    }
+
     @Test
     void shouldCreateBooking() {
         BookingRequestDto dto = new BookingRequestDto(
@@ -199,27 +363,86 @@ public class BookingServiceTest {
 
     @Test
     void shouldReturnUserBookingsAll() {
-        List<BookingResponseDto> bookings = bookingService.findUserBookings(bookerId, "ALL");
+        List<BookingResponseDto> bookings = bookingService.findUserBookings(bookerId, BookingState.ALL, null, null).getContent();
         assertThat(bookings.size()).isEqualTo(1);
     }
 
+    @Test
+    void listingShouldRecordLatencyPerRoleAndState() {
+        bookingService.findOwnerReservedItems(ownerId, BookingState.WAITING, null, null);
+
+        assertThat(meterRegistry.find(BookingListQueries.TIMER).tag("role", "OWNER").tag("state", "WAITING")
+                .timer().count()).isGreaterThan(0L);
+    }
+
     @Test
     void shouldReturnOwnerBookingsAll() {
-        List<BookingResponseDto> bookings = bookingService.findOwnerReservedItems(ownerId, "ALL");
+        List<BookingResponseDto> bookings = bookingService.findOwnerReservedItems(ownerId, BookingState.ALL, null, null).getContent();
         assertThat(bookings.size()).isEqualTo(1);
     }
 
+    @Test
+    void shouldPageUserBookingsByCursor() {
+        Item item = em.find(Item.class, itemId);
+        User booker = em.find(User.class, bookerId);
+        LocalDateTime base = LocalDateTime.now().plusDays(10).withNano(0);
+
+        for (int i = 0; i < 3; i++) {
+            Booking booking = new Booking();
+            booking.setStart(base);
+            booking.setEnd(base.plusDays(1));
+            booking.setItem(item);
+            booking.setBooker(booker);
+            booking.setStatus(RentalStatus.WAITING);
+            booking.setPhase(BookingPhase.at(booking.getStart(), booking.getEnd(), LocalDateTime.now()));
+            em.persist(booking);
+        }
+        em.flush();
+
+        CursorSlice<BookingResponseDto> first = bookingService.findUserBookings(bookerId, BookingState.ALL, null, 2);
+        assertThat(first.getContent().size()).isEqualTo(2);
+        assertThat(first.getNextCursor()).isNotNull();
+
+        CursorSlice<BookingResponseDto> second = bookingService.findUserBookings(bookerId, BookingState.ALL, first.getNextCursor(), 2);
+        assertThat(second.getContent().size()).isEqualTo(2);
+        assertThat(second.getNextCursor()).isNull();
+        assertThat(second.getContent().get(1).getId()).isEqualTo(bookingId);
+
+        List<Long> pagedIds = Stream.concat(first.getContent().stream(), second.getContent().stream())
+                .map(BookingResponseDto::getId)
+                .toList();
+        List<Long> allIds = bookingService.findUserBookings(bookerId, BookingState.ALL, null, null).getContent().stream()
+                .map(BookingResponseDto::getId)
+                .toList();
+        assertThat(pagedIds).isEqualTo(allIds);
+    }
+
+    @Test
+    void shouldPageOwnerBookingsByCursor() {
+        CursorSlice<BookingResponseDto> page = bookingService.findOwnerReservedItems(ownerId, BookingState.WAITING, null, 1);
+        assertThat(page.getContent().size()).isEqualTo(1);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void shouldThrowExceptionWhenCursorIsMalformed() {
+        assertThrows(ValidationException.class,
+                () -> bookingService.findUserBookings(bookerId, BookingState.ALL, "вчера,1", 10));
+        assertThrows(ValidationException.class,
+                () -> bookingService.findOwnerReservedItems(ownerId, BookingState.ALL, null, 0));
+    }
+
     @Test
     void shouldThrowExceptionIfUserNotFoundInFindUserBookings() {
         NotFoundException notFoundException = assertThrows(NotFoundException.class,
-                () -> bookingService.findUserBookings(999L, "ALL"));
+                () -> bookingService.findUserBookings(999L, BookingState.ALL, null, null));
         assertThat(notFoundException.getMessage()).contains("Пользователь с данным id: " + 999L + " не найден");
     }
 
     @Test
     void shouldThrowExceptionIfUserNotFoundInFindOwnerReservedItems() {
         NotFoundException notFoundException = assertThrows(NotFoundException.class,
-                () -> bookingService.findOwnerReservedItems(999L, "ALL"));
+                () -> bookingService.findOwnerReservedItems(999L, BookingState.ALL, null, null));
         assertThat(notFoundException.getMessage()).contains("Пользователь с данным id: " + 999L + " не найден");
     }
 }
@@ -0,0 +1,171 @@
+package ru.practicum.shareit.booking.lifecycle;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.CommittedFixtures;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.status.BookingState;
+import ru.practicum.shareit.item.dto.ItemBookingDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Фоновая смена фаз выключена; время двигается вручную, а сверка вызывается напрямую.
+ */
+@ActiveProfiles("test")
+@Import({CommittedFixtures.class, BookingLifecycleClockTest.ClockConfiguration.class})
+@SpringBootTest(
+        classes = ShareItApp.class,
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingLifecycleClockTest {
+    private final BookingLifecycle bookingLifecycle;
+    private final BookingService bookingService;
+    private final ItemService itemService;
+    private final MutableClock clock;
+    private final JdbcTemplate jdbcTemplate;
+    private final CommittedFixtures fixtures;
+
+    private Long ownerId;
+    private Long bookerId;
+    private Long itemId;
+
+    @BeforeEach
+    void setUp() {
+        clock.reset();
+        ownerId = fixtures.insert("INSERT INTO users (name, email) VALUES ('Владимир Петухов', 'Vladimir@mail.ru')");
+        bookerId = fixtures.insert("INSERT INTO users (name, email) VALUES ('Петр Васильев', 'Petr@mail.ru')");
+        itemId = fixtures.insert("INSERT INTO items (name, description, available, owner_id) " +
+                "VALUES ('Canon 500d', 'Зеркальный фотоаппарат', true, " + ownerId + ")");
+        jdbcTemplate.update("INSERT INTO item_summary (item_id) VALUES (?)", itemId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        clock.reset();
+        jdbcTemplate.update("DELETE FROM bookings WHERE item_id = ?", itemId);
+        jdbcTemplate.update("DELETE FROM items WHERE id = ?", itemId);
+        jdbcTemplate.update("DELETE FROM users WHERE id IN (?, ?)", ownerId, bookerId);
+    }
+
+    @Test
+    void sweepShouldMoveListingsAndSummaryWithClock() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        Long first = fixtures.insertBooking(itemId, bookerId, now.plusDays(1), now.plusDays(2));
+        Long second = fixtures.insertBooking(itemId, bookerId, now.plusDays(3), now.plusDays(4));
+
+        bookingLifecycle.sweep();
+
+        assertThat(bookingIds(BookingState.FUTURE)).containsExactly(second, first);
+        assertThat(bookingIds(BookingState.CURRENT)).isEmpty();
+        assertThat(bookingIds(BookingState.PAST)).isEmpty();
+
+        clock.advance(Duration.ofHours(36));
+        bookingLifecycle.sweep();
+
+        assertThat(bookingIds(BookingState.FUTURE)).containsExactly(second);
+        assertThat(bookingIds(BookingState.CURRENT)).containsExactly(first);
+        assertThat(bookingIds(BookingState.PAST)).isEmpty();
+        assertThat(summary().getLastBooking()).isNull();
+        assertThat(summary().getNextBooking().getId()).isEqualTo(second);
+
+        clock.advance(Duration.ofDays(1));
+        bookingLifecycle.sweep();
+
+        assertThat(bookingIds(BookingState.FUTURE)).containsExactly(second);
+        assertThat(bookingIds(BookingState.CURRENT)).isEmpty();
+        assertThat(bookingIds(BookingState.PAST)).containsExactly(first);
+        assertThat(summary().getLastBooking().getId()).isEqualTo(first);
+        assertThat(summary().getNextBooking().getId()).isEqualTo(second);
+
+        clock.advance(Duration.ofDays(3));
+        bookingLifecycle.sweep();
+
+        assertThat(bookingIds(BookingState.FUTURE)).isEmpty();
+        assertThat(bookingIds(BookingState.CURRENT)).isEmpty();
+        assertThat(bookingIds(BookingState.PAST)).containsExactly(second, first);
+        assertThat(summary().getLastBooking().getId()).isEqualTo(second);
+        assertThat(summary().getNextBooking()).isNull();
+    }
+
+    @Test
+    void createdBookingShouldTakePhaseFromClock() {
+        LocalDateTime wallClock = LocalDateTime.now();
+        clock.advance(Duration.ofHours(36));
+
+        BookingResponseDto created = bookingService.createBooking(bookerId,
+                new BookingRequestDto(itemId, wallClock.plusDays(1), wallClock.plusDays(2)));
+        bookingService.updateBooking(ownerId, created.getId(), true);
+
+        assertThat(bookingIds(BookingState.CURRENT)).containsExactly(created.getId());
+        assertThat(bookingIds(BookingState.FUTURE)).isEmpty();
+    }
+
+    private List<Long> bookingIds(BookingState state) {
+        return bookingService.findUserBookings(bookerId, state, null, null).getContent().stream()
+                .map(BookingResponseDto::getId)
+                .toList();
+    }
+
+    private ItemBookingDto summary() {
+        return itemService.findUserItems(ownerId).getFirst();
+    }
+
+    @TestConfiguration
+    static class ClockConfiguration {
+
+        @Bean
+        @Primary
+        MutableClock mutableClock() {
+            return new MutableClock();
+        }
+    }
+
+    static class MutableClock extends Clock {
+        private volatile Instant instant = Instant.now();
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        void reset() {
+            instant = Instant.now();
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.systemDefault();
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return Clock.fixed(instant, zone);
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
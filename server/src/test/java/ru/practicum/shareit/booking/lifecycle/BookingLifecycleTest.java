@@ -0,0 +1,118 @@
+package ru.practicum.shareit.booking.lifecycle;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.CommittedFixtures;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.status.BookingPhase;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Контекст с работающим колесом закрывается после класса, чтобы фоновая смена фаз
+ * не трогала общую базу в транзакционных тестах.
+ */
+@DirtiesContext
+@ActiveProfiles("test")
+@Import(CommittedFixtures.class)
+@SpringBootTest(
+        classes = ShareItApp.class,
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "shareit.booking.lifecycle.enabled=true",
+                "shareit.booking.lifecycle.tick=100ms",
+                "shareit.booking.lifecycle.wheel-size=100"})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingLifecycleTest {
+    private final BookingLifecycle bookingLifecycle;
+    private final JdbcTemplate jdbcTemplate;
+    private final CommittedFixtures fixtures;
+
+    private Long ownerId;
+    private Long bookerId;
+    private Long itemId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = fixtures.insert("INSERT INTO users (name, email) VALUES ('Владимир Петухов', 'Vladimir@mail.ru')");
+        bookerId = fixtures.insert("INSERT INTO users (name, email) VALUES ('Петр Васильев', 'Petr@mail.ru')");
+        itemId = fixtures.insert("INSERT INTO items (name, description, available, owner_id) " +
+                "VALUES ('Canon 500d', 'Зеркальный фотоаппарат', true, " + ownerId + ")");
+        jdbcTemplate.update("INSERT INTO item_summary (item_id) VALUES (?)", itemId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM bookings WHERE item_id = ?", itemId);
+        jdbcTemplate.update("DELETE FROM items WHERE id = ?", itemId);
+        jdbcTemplate.update("DELETE FROM users WHERE id IN (?, ?)", ownerId, bookerId);
+    }
+
+    @Test
+    void bookingShouldMoveThroughPhasesAtItsStartAndEnd() throws InterruptedException {
+        LocalDateTime now = LocalDateTime.now();
+        Long bookingId = fixtures.insertBooking(itemId, bookerId, now.plusSeconds(1), now.plusSeconds(2));
+
+        bookingLifecycle.sweep();
+
+        assertThat(phaseOf(bookingId)).isEqualTo(BookingPhase.UPCOMING);
+        awaitPhase(bookingId, BookingPhase.ACTIVE);
+        awaitPhase(bookingId, BookingPhase.FINISHED);
+        assertThat(summaryOf("last_booking_id")).isEqualTo(bookingId);
+        assertThat(summaryOf("next_booking_id")).isNull();
+    }
+
+    @Test
+    void sweepShouldCatchUpMissedTransitions() {
+        LocalDateTime now = LocalDateTime.now();
+        Long finished = fixtures.insertBooking(itemId, bookerId, now.minusDays(2), now.minusDays(1));
+        Long active = fixtures.insertBooking(itemId, bookerId, now.minusDays(1), now.plusDays(1));
+
+        bookingLifecycle.sweep();
+
+        assertThat(phaseOf(finished)).isEqualTo(BookingPhase.FINISHED);
+        assertThat(phaseOf(active)).isEqualTo(BookingPhase.ACTIVE);
+    }
+
+    @Test
+    void sweepShouldRefreshItemSummary() {
+        LocalDateTime now = LocalDateTime.now();
+        Long finished = fixtures.insertBooking(itemId, bookerId, now.minusDays(2), now.minusDays(1));
+        Long upcoming = fixtures.insertBooking(itemId, bookerId, now.plusDays(1), now.plusDays(2));
+
+        bookingLifecycle.sweep();
+
+        assertThat(summaryOf("last_booking_id")).isEqualTo(finished);
+        assertThat(summaryOf("next_booking_id")).isEqualTo(upcoming);
+    }
+
+    private Long summaryOf(String column) {
+        return jdbcTemplate.queryForObject("SELECT " + column + " FROM item_summary WHERE item_id = ?",
+                Long.class, itemId);
+    }
+
+    private void awaitPhase(Long bookingId, BookingPhase phase) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+
+        while (phaseOf(bookingId) != phase && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        assertThat(phaseOf(bookingId)).isEqualTo(phase);
+    }
+
+    private BookingPhase phaseOf(Long bookingId) {
+        return BookingPhase.valueOf(jdbcTemplate.queryForObject("SELECT phase FROM bookings WHERE id = ?",
+                String.class, bookingId));
+    }
+}
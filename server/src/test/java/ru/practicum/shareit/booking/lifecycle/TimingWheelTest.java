@@ -0,0 +1,47 @@
+package ru.practicum.shareit.booking.lifecycle;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TimingWheelTest {
+
+    @Test
+    void taskShouldFireOnItsTickOnly() {
+        TimingWheel<String> wheel = new TimingWheel<>(8, 0);
+        wheel.schedule("start", 3);
+
+        assertThat(wheel.advance(2)).isEmpty();
+        assertThat(wheel.advance(3)).containsExactly("start");
+        assertThat(wheel.advance(11)).isEmpty();
+    }
+
+    @Test
+    void taskBeyondOneRevolutionShouldWaitForItsRound() {
+        TimingWheel<String> wheel = new TimingWheel<>(8, 0);
+        wheel.schedule("end", 13);
+
+        assertThat(wheel.advance(5)).isEmpty();
+        assertThat(wheel.advance(12)).isEmpty();
+        assertThat(wheel.advance(13)).containsExactly("end");
+    }
+
+    @Test
+    void overdueTaskShouldFireOnNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(8, 10);
+        wheel.schedule("late", 4);
+
+        assertThat(wheel.advance(11)).containsExactly("late");
+    }
+
+    @Test
+    void longPauseShouldReleaseEverythingDue() {
+        TimingWheel<String> wheel = new TimingWheel<>(4, 0);
+        wheel.schedule("first", 1);
+        wheel.schedule("second", 6);
+        wheel.schedule("third", 40);
+
+        assertThat(wheel.advance(20)).containsExactlyInAnyOrder("first", "second");
+        assertThat(wheel.advance(40)).containsExactly("third");
+    }
+}
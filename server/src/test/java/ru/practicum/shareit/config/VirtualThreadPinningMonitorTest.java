@@ -0,0 +1,43 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VirtualThreadPinningMonitorTest {
+    private final Object lock = new Object();
+
+    @Test
+    void blockingInsideSynchronizedShouldBeCountedAsPinned() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        try (VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(registry, Duration.ofMillis(10))) {
+            monitor.start();
+
+            Thread.ofVirtual().start(() -> {
+                synchronized (lock) {
+                    sleep(100);
+                }
+            }).join();
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+
+            while (registry.counter("jvm.threads.virtual.pinned").count() == 0 && System.nanoTime() < deadline) {
+                sleep(100);
+            }
+        }
+
+        assertThat(registry.counter("jvm.threads.virtual.pinned").count()).isPositive();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
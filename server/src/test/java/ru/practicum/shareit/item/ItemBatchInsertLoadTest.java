@@ -0,0 +1,101 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.CommittedFixtures;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Сравнивает добавление вещей по одной с пакетным {@code POST /items/batch}: строки в секунду и число
+ * подготовленных выражений. Запуск: {@code mvn -Pload -pl server test}.
+ */
+@Slf4j
+@Tag("load")
+@ActiveProfiles("test")
+@Import(CommittedFixtures.class)
+@SpringBootTest(
+        classes = ShareItApp.class,
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ItemBatchInsertLoadTest {
+    private static final int ITEMS = 2_000;
+    private static final int WARM_UP_ITEMS = 200;
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ItemService itemService;
+    private final JdbcTemplate jdbcTemplate;
+    private final CommittedFixtures fixtures;
+
+    private Statistics statistics;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        userId = fixtures.insert("INSERT INTO users (name, email) VALUES ('Владимир Петухов', 'Vladimir@mail.ru')");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM items WHERE owner_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+    }
+
+    @Test
+    void batchCreationShouldInsertFasterWithFewerStatements() {
+        insertOneByOne(items(WARM_UP_ITEMS));
+        itemService.createItems(userId, items(WARM_UP_ITEMS));
+
+        Result single = measure(() -> insertOneByOne(items(ITEMS)));
+        Result batch = measure(() -> itemService.createItems(userId, items(ITEMS)));
+
+        log.info("По одной: {} строк/с, {} выражений", Math.round(single.rowsPerSecond()), single.statements());
+        log.info("Пакетом: {} строк/с, {} выражений", Math.round(batch.rowsPerSecond()), batch.statements());
+
+        assertThat(batch.statements()).isLessThan(single.statements() / 10);
+        assertThat(batch.rowsPerSecond()).isGreaterThan(single.rowsPerSecond());
+    }
+
+    private void insertOneByOne(List<ItemDto> items) {
+        items.forEach(item -> itemService.createItem(userId, item));
+    }
+
+    private Result measure(Runnable insert) {
+        statistics.clear();
+        long started = System.nanoTime();
+
+        insert.run();
+
+        return new Result(ITEMS / ((System.nanoTime() - started) / 1e9), statistics.getPrepareStatementCount());
+    }
+
+    private static List<ItemDto> items(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new ItemDto(null, "Дрель " + i, "Ударная дрель", true, null))
+                .toList();
+    }
+
+    private record Result(double rowsPerSecond, long statements) {
+    }
+}
@@ -10,13 +10,16 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.practicum.shareit.booking.dto.BookingPeriodDto;
 import ru.practicum.shareit.error.ErrorHandler;
 import ru.practicum.shareit.item.comment.dto.CommentRequestDto;
 import ru.practicum.shareit.item.comment.dto.CommentResponseDto;
 import ru.practicum.shareit.item.controller.ItemController;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.CursorSlice;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
@@ -30,6 +33,7 @@ import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -89,6 +93,45 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.requestId", is(2)));
     }
 
+    @Test
+    void mustCreateItemsInBatch() throws Exception {
+        when(itemService.createItems(eq(1L), any()))
+                .thenReturn(List.of(itemDto, updatedItemDto));
+
+        mvc.perform(post("/items/batch")
+                        .header("X-Sharer-User-Id", 1L)
+                        .content(mapper.writeValueAsString(List.of(itemDto, updatedItemDto)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].description", is("Строительный пылесос")))
+                .andExpect(jsonPath("$[1].description", is("Промышленный пылесос")))
+                .andExpect(jsonPath("$[1].requestId", is(2)));
+    }
+
+    @Test
+    void mustReturnItemAvailability() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2026, 7, 1, 10, 0);
+        LocalDateTime to = LocalDateTime.of(2026, 7, 10, 10, 0);
+
+        when(itemService.findAvailability(1L, 1L, from, to))
+                .thenReturn(new ItemAvailabilityDto(1L, from, to,
+                        List.of(new BookingPeriodDto(from, from.plusDays(2))),
+                        List.of(new BookingPeriodDto(from.plusDays(2), to))));
+
+        mvc.perform(get("/items/1/availability")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("from", "2026-07-01T10:00")
+                        .param("to", "2026-07-10T10:00")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId", is(1)))
+                .andExpect(jsonPath("$.busy[0].end[2]", is(3)))
+                .andExpect(jsonPath("$.free[0].start[2]", is(3)))
+                .andExpect(jsonPath("$.free[0].end[2]", is(10)));
+    }
+
     @Test
     void mustUpdateItem() throws Exception {
         ItemDto patchDto = new ItemDto(
@@ -200,12 +243,13 @@ public class ItemControllerTest {
                 )
         );
 
-        when(itemService.searchItem("дрель")).thenReturn(searchResults);
+        when(itemService.searchItem("дрель", null, 0, null)).thenReturn(new CursorSlice<>(searchResults, "2"));
 
         mvc.perform(get("/items/search")
                         .param("text", "дрель")
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string(CursorSlice.NEXT_CURSOR_HEADER, "2"))
                 .andExpect(jsonPath("$.size()", is(2)))
                 .andExpect(jsonPath("$[0].id", is(1)))
                 .andExpect(jsonPath("$[0].name", is("Bosch GSB 13 RE")))
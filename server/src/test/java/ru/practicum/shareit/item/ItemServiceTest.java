@@ -8,23 +8,34 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.dto.BookingPeriodDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.status.BookingPhase;
 import ru.practicum.shareit.booking.status.RentalStatus;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.comment.dto.CommentRequestDto;
 import ru.practicum.shareit.item.comment.dto.CommentResponseDto;
 import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSummary;
+import ru.practicum.shareit.item.repository.ItemSummaryRepository;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.ItemSummaries;
+import ru.practicum.shareit.pagination.CursorSlice;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
 
 @Transactional
 @ActiveProfiles("test")
@@ -35,6 +46,8 @@ import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 public class ItemServiceTest {
     private final EntityManager em;
     private final ItemService itemService;
+    private final ItemSummaries itemSummaries;
+    private final ItemSummaryRepository itemSummaryRepository;
 
     @Test
     void mustReturnUserItems() {
@@ -61,6 +74,7 @@ public class ItemServiceTest {
         pastBooking.setItem(item);
         pastBooking.setBooker(booker);
         pastBooking.setStatus(RentalStatus.APPROVED);
+        pastBooking.setPhase(BookingPhase.at(pastBooking.getStart(), pastBooking.getEnd(), LocalDateTime.now()));
         em.persist(pastBooking);
 
         Booking futureBooking = new Booking();
@@ -69,6 +83,7 @@ public class ItemServiceTest {
         futureBooking.setItem(item);
         futureBooking.setBooker(booker);
         futureBooking.setStatus(RentalStatus.APPROVED);
+        futureBooking.setPhase(BookingPhase.at(futureBooking.getStart(), futureBooking.getEnd(), LocalDateTime.now()));
         em.persist(futureBooking);
 
         Comment comment = new Comment();
@@ -78,6 +93,8 @@ public class ItemServiceTest {
         comment.setCreated(LocalDateTime.now().minusHours(2));
         em.persist(comment);
 
+        em.flush();
+        itemSummaries.rebuild(List.of(item.getId()));
         em.flush();
         em.clear();
 
@@ -95,6 +112,93 @@ public class ItemServiceTest {
         assertThat(itemBookingDto.getComments().get(0).getText()).isEqualTo("Все понравилось. Рекомендую!");
     }
 
+    @Test
+    void mustReturnClosestApprovedBookingsWhenItemHasSeveral() {
+        User owner = new User();
+        owner.setName("Владимир Петухов");
+        owner.setEmail("Vladimir@mail.ru");
+        em.persist(owner);
+
+        User booker = new User();
+        booker.setName("Петр Васильев");
+        booker.setEmail("Petr@mail.ru");
+        em.persist(booker);
+
+        Item item = new Item();
+        item.setName("Canon 500d");
+        item.setDescription("Зеркальный фотоаппарат");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        em.persist(item);
+
+        Booking oldBooking = booking(item, booker, -10, -8, RentalStatus.APPROVED);
+        Booking lastBooking = booking(item, booker, -5, -2, RentalStatus.APPROVED);
+        booking(item, booker, -3, -1, RentalStatus.REJECTED);
+        booking(item, booker, 1, 2, RentalStatus.WAITING);
+        Booking nextBooking = booking(item, booker, 3, 4, RentalStatus.APPROVED);
+        booking(item, booker, 6, 8, RentalStatus.APPROVED);
+
+        em.flush();
+        itemSummaries.rebuild(List.of(item.getId()));
+        em.flush();
+        em.clear();
+
+        List<ItemBookingDto> result = itemService.findUserItems(owner.getId());
+
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getLastBooking().getId()).isEqualTo(lastBooking.getId());
+        assertThat(result.get(0).getNextBooking().getId()).isEqualTo(nextBooking.getId());
+        assertThat(result.get(0).getLastBooking().getId()).isNotEqualTo(oldBooking.getId());
+
+        ItemBookingDto single = itemService.findItemById(owner.getId(), item.getId());
+
+        assertThat(single.getLastBooking().getId()).isEqualTo(lastBooking.getId());
+        assertThat(single.getNextBooking().getBookerId()).isEqualTo(booker.getId());
+    }
+
+    @Test
+    void mustPickLastAndNextBookingsByPhaseInCardAndList() {
+        User owner = new User();
+        owner.setName("Владимир Петухов");
+        owner.setEmail("Vladimir@mail.ru");
+        em.persist(owner);
+
+        User booker = new User();
+        booker.setName("Петр Васильев");
+        booker.setEmail("Petr@mail.ru");
+        em.persist(booker);
+
+        Item item = new Item();
+        item.setName("Canon 500d");
+        item.setDescription("Зеркальный фотоаппарат");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        em.persist(item);
+
+        Booking finished = booking(item, booker, -10, -8, RentalStatus.APPROVED);
+        Booking notSwept = new Booking();
+        notSwept.setItem(item);
+        notSwept.setBooker(booker);
+        notSwept.setStart(LocalDateTime.now().minusDays(3));
+        notSwept.setEnd(LocalDateTime.now().minusDays(1));
+        notSwept.setStatus(RentalStatus.APPROVED);
+        notSwept.setPhase(BookingPhase.UPCOMING);
+        em.persist(notSwept);
+
+        em.flush();
+        itemSummaries.rebuild(List.of(item.getId()));
+        em.flush();
+        em.clear();
+
+        ItemBookingDto listed = itemService.findUserItems(owner.getId()).get(0);
+        ItemBookingDto card = itemService.findItemById(owner.getId(), item.getId());
+
+        assertThat(listed.getLastBooking().getId()).isEqualTo(finished.getId());
+        assertThat(listed.getNextBooking().getId()).isEqualTo(notSwept.getId());
+        assertThat(card.getLastBooking().getId()).isEqualTo(finished.getId());
+        assertThat(card.getNextBooking().getId()).isEqualTo(notSwept.getId());
+    }
+
     @Test
     void mustCreateItemWithRequestId() {
         User user = new User();
@@ -133,6 +237,46 @@ public class ItemServiceTest {
         assertThat(result.getRequestId()).isNull();
     }
 
+    @Test
+    void mustCreateItemsInBatch() {
+        User user = new User();
+        user.setName("Андрей Алексеев");
+        user.setEmail("Andrey@mail.ru");
+        em.persist(user);
+
+        ItemRequest itemRequest = new ItemRequest();
+        itemRequest.setDescription("Нужен строительный пылесос");
+        itemRequest.setRequestor(user);
+        itemRequest.setCreated(LocalDateTime.now());
+        em.persist(itemRequest);
+        em.flush();
+
+        List<ItemDto> result = itemService.createItems(user.getId(), List.of(
+                new ItemDto(null, "Karcher WD 2 Plus", "Строительный пылесос", true, itemRequest.getId()),
+                new ItemDto(null, "Dykemann", "Удобное кресло", true, null)));
+        em.flush();
+        em.clear();
+
+        assertThat(result).extracting(ItemDto::getName).containsExactly("Karcher WD 2 Plus", "Dykemann");
+        assertThat(result.get(0).getRequestId()).isEqualTo(itemRequest.getId());
+        assertThat(result.get(1).getRequestId()).isNull();
+        assertThat(em.find(Item.class, result.get(1).getId()).getOwner().getId()).isEqualTo(user.getId());
+    }
+
+    @Test
+    void mustRejectBatchWithUnknownRequest() {
+        User user = new User();
+        user.setName("Макс Иванов");
+        user.setEmail("Max@mail.ru");
+        em.persist(user);
+        em.flush();
+
+        assertThatThrownBy(() -> itemService.createItems(user.getId(), List.of(
+                new ItemDto(null, "Dykemann", "Удобное кресло", true, null),
+                new ItemDto(null, "Karcher WD 2 Plus", "Строительный пылесос", true, 999L))))
+                .isInstanceOf(NotFoundException.class);
+    }
+
     @Test
     void mustUpdateItemFields() {
         User user = new User();
@@ -182,6 +326,7 @@ public class ItemServiceTest {
         pastBooking.setStart(LocalDateTime.now().minusDays(5));
         pastBooking.setEnd(LocalDateTime.now().minusDays(2));
         pastBooking.setStatus(RentalStatus.APPROVED);
+        pastBooking.setPhase(BookingPhase.at(pastBooking.getStart(), pastBooking.getEnd(), LocalDateTime.now()));
         em.persist(pastBooking);
 
         Booking futureBooking = new Booking();
@@ -190,6 +335,7 @@ public class ItemServiceTest {
         futureBooking.setStart(LocalDateTime.now().plusDays(1));
         futureBooking.setEnd(LocalDateTime.now().plusDays(3));
         futureBooking.setStatus(RentalStatus.APPROVED);
+        futureBooking.setPhase(BookingPhase.at(futureBooking.getStart(), futureBooking.getEnd(), LocalDateTime.now()));
         em.persist(futureBooking);
 
         Comment comment = new Comment();
@@ -209,6 +355,45 @@ public class ItemServiceTest {
         assertThat(result.getComments()).hasSize(1);
     }
 
+    @Test
+    void mustReturnItemCardWithLatestCommentsFirst() {
+        User owner = new User();
+        owner.setName("Макс Иванов");
+        owner.setEmail("Max@mail.ru");
+        em.persist(owner);
+
+        User author = new User();
+        author.setName("Андрей Алексеев");
+        author.setEmail("Andrey@mail.ru");
+        em.persist(author);
+
+        Item item = new Item();
+        item.setName("Yamaha PACIFICA 012 BL");
+        item.setDescription("Электрогитара");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        em.persist(item);
+
+        Comment older = comment(item, author, "Хороший звук", 3);
+        Comment newer = comment(item, author, "Отличный инструмент!", 1);
+
+        em.flush();
+        em.clear();
+
+        ItemBookingDto result = itemService.findItemById(author.getId(), item.getId());
+
+        assertThat(result.getId()).isEqualTo(item.getId());
+        assertThat(result.getName()).isEqualTo("Yamaha PACIFICA 012 BL");
+        assertThat(result.getDescription()).isEqualTo("Электрогитара");
+        assertThat(result.getAvailable()).isTrue();
+        assertThat(result.getComments()).extracting(CommentResponseDto::getId)
+                .containsExactly(newer.getId(), older.getId());
+        assertThat(result.getComments().get(0).getAuthorName()).isEqualTo("Андрей Алексеев");
+        assertThat(result.getComments().get(0).getItemId()).isEqualTo(item.getId());
+        assertThatThrownBy(() -> itemService.findItemById(owner.getId(), item.getId() + 1000))
+                .isInstanceOf(NotFoundException.class);
+    }
+
     @Test
     void mustReturnItemWithoutBookingsForOtherUser() {
         User owner = new User();
@@ -259,12 +444,198 @@ public class ItemServiceTest {
 
         em.flush();
 
-        List<ItemDto> result = itemService.searchItem("Телевизор");
+        List<ItemDto> result = search("Телевизор");
 
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getAvailable()).isTrue();
     }
 
+    @Test
+    void mustSearchBySubstringIgnoringCase() {
+        User user = new User();
+        user.setName("Макс Иванов");
+        user.setEmail("Max@mail.ru");
+        em.persist(user);
+
+        Item drill = new Item();
+        drill.setName("Дрель Bosch");
+        drill.setDescription("Аккумуляторная ДРЕЛЬ-шуруповерт");
+        drill.setAvailable(true);
+        drill.setOwner(user);
+        em.persist(drill);
+
+        Item saw = new Item();
+        saw.setName("Пила");
+        saw.setDescription("Циркулярная");
+        saw.setAvailable(true);
+        saw.setOwner(user);
+        em.persist(saw);
+
+        em.flush();
+
+        assertThat(search("шуруп")).extracting(ItemDto::getId).containsExactly(drill.getId());
+        assertThat(search("bOsCh")).extracting(ItemDto::getId).containsExactly(drill.getId());
+        assertThat(search("ла")).extracting(ItemDto::getId).containsExactly(saw.getId());
+        assertThat(search("перфоратор")).isEmpty();
+    }
+
+    @Test
+    void mustSearchByUpdatedItemFields() {
+        User user = new User();
+        user.setName("Макс Иванов");
+        user.setEmail("Max@mail.ru");
+        em.persist(user);
+
+        Item item = new Item();
+        item.setName("Стол");
+        item.setDescription("Письменный");
+        item.setAvailable(true);
+        item.setOwner(user);
+        em.persist(item);
+        em.flush();
+
+        itemService.updateItem(item.getId(), user.getId(), new ItemDto(null, "Табурет", null, null, null));
+        em.flush();
+
+        assertThat(search("стол")).isEmpty();
+        assertThat(search("табурет")).extracting(ItemDto::getId).containsExactly(item.getId());
+        assertThat(search("письменный")).extracting(ItemDto::getId).containsExactly(item.getId());
+    }
+
+    @Test
+    void mustReturnMergedBusyAndFreePeriods() {
+        User owner = new User();
+        owner.setName("Владимир Петухов");
+        owner.setEmail("Vladimir@mail.ru");
+        em.persist(owner);
+
+        User booker = new User();
+        booker.setName("Петр Васильев");
+        booker.setEmail("Petr@mail.ru");
+        em.persist(booker);
+
+        Item item = new Item();
+        item.setName("Canon 500d");
+        item.setDescription("Зеркальный фотоаппарат");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        em.persist(item);
+
+        LocalDateTime from = LocalDateTime.now().plusDays(1).withNano(0);
+        persistBooking(item, booker, from.minusDays(2), from.plusDays(1), RentalStatus.APPROVED);
+        persistBooking(item, booker, from.plusDays(1), from.plusDays(2), RentalStatus.APPROVED);
+        persistBooking(item, booker, from.plusDays(3), from.plusDays(4), RentalStatus.WAITING);
+        persistBooking(item, booker, from.plusDays(5), from.plusDays(20), RentalStatus.APPROVED);
+        em.flush();
+
+        ItemAvailabilityDto result = itemService.findAvailability(booker.getId(), item.getId(), from,
+                from.plusDays(10));
+
+        assertThat(result.getBusy()).extracting(BookingPeriodDto::getStart, BookingPeriodDto::getEnd)
+                .containsExactly(tuple(from, from.plusDays(2)), tuple(from.plusDays(5), from.plusDays(10)));
+        assertThat(result.getFree()).extracting(BookingPeriodDto::getStart, BookingPeriodDto::getEnd)
+                .containsExactly(tuple(from.plusDays(2), from.plusDays(5)));
+    }
+
+    @Test
+    void mustShowApprovalMadeAfterCalendarWasRead() {
+        User owner = new User();
+        owner.setName("Владимир Петухов");
+        owner.setEmail("Vladimir@mail.ru");
+        em.persist(owner);
+
+        User booker = new User();
+        booker.setName("Петр Васильев");
+        booker.setEmail("Petr@mail.ru");
+        em.persist(booker);
+
+        Item item = new Item();
+        item.setName("Canon 500d");
+        item.setDescription("Зеркальный фотоаппарат");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        em.persist(item);
+        em.flush();
+
+        LocalDateTime from = LocalDateTime.now().plusDays(1).withNano(0);
+        assertThat(itemService.findAvailability(booker.getId(), item.getId(), from, from.plusDays(10)).getBusy())
+                .isEmpty();
+
+        persistBooking(item, booker, from.plusDays(2), from.plusDays(3), RentalStatus.APPROVED);
+        em.flush();
+
+        assertThat(itemService.findAvailability(booker.getId(), item.getId(), from, from.plusDays(10)).getBusy())
+                .extracting(BookingPeriodDto::getStart, BookingPeriodDto::getEnd)
+                .containsExactly(tuple(from.plusDays(2), from.plusDays(3)));
+    }
+
+    @Test
+    void mustRejectInvalidAvailabilityPeriod() {
+        User user = new User();
+        user.setName("Макс Иванов");
+        user.setEmail("Max@mail.ru");
+        em.persist(user);
+
+        Item item = new Item();
+        item.setName("Dykemann");
+        item.setDescription("Удобное кресло");
+        item.setAvailable(true);
+        item.setOwner(user);
+        em.persist(item);
+        em.flush();
+
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+
+        assertThatThrownBy(() -> itemService.findAvailability(user.getId(), item.getId(), from, from.minusHours(1)))
+                .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> itemService.findAvailability(user.getId(), item.getId(), from, from.plusYears(2)))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    @Test
+    void mustPageSearchResultsWithCursor() {
+        User user = new User();
+        user.setName("Макс Иванов");
+        user.setEmail("Max@mail.ru");
+        em.persist(user);
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Item item = new Item();
+            item.setName("Палатка " + i);
+            item.setDescription("Туристическая");
+            item.setAvailable(i != 2);
+            item.setOwner(user);
+            em.persist(item);
+            ids.add(item.getId());
+        }
+        em.flush();
+
+        CursorSlice<ItemDto> first = itemService.searchItem("палатка", null, 0, 2);
+        assertThat(first.getContent()).extracting(ItemDto::getId).containsExactly(ids.get(0), ids.get(1));
+        assertThat(first.getNextCursor()).isEqualTo(String.valueOf(ids.get(1)));
+
+        CursorSlice<ItemDto> second = itemService.searchItem("палатка", Long.valueOf(first.getNextCursor()), 0, 2);
+        assertThat(second.getContent()).extracting(ItemDto::getId).containsExactly(ids.get(3), ids.get(4));
+        assertThat(second.getNextCursor()).isNull();
+
+        CursorSlice<ItemDto> byOffset = itemService.searchItem("палатка", null, 2, 2);
+        assertThat(byOffset.getContent()).extracting(ItemDto::getId).containsExactly(ids.get(3), ids.get(4));
+
+        CursorSlice<ItemDto> unpaged = itemService.searchItem("палатка", null, 0, null);
+        assertThat(unpaged.getContent()).extracting(ItemDto::getId)
+                .containsExactly(ids.get(0), ids.get(1), ids.get(3), ids.get(4));
+        assertThat(unpaged.getNextCursor()).isNull();
+    }
+
+    @Test
+    void mustRejectInvalidSearchPaging() {
+        assertThatThrownBy(() -> itemService.searchItem("палатка", null, -1, 10))
+                .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> itemService.searchItem("палатка", null, 0, 0))
+                .isInstanceOf(ValidationException.class);
+    }
+
     @Test
     void mustCreateCommentAfterBooking() {
         User owner = new User();
@@ -290,6 +661,7 @@ public class ItemServiceTest {
         booking.setStart(LocalDateTime.now().minusDays(5));
         booking.setEnd(LocalDateTime.now().minusDays(2));
         booking.setStatus(RentalStatus.APPROVED);
+        booking.setPhase(BookingPhase.at(booking.getStart(), booking.getEnd(), LocalDateTime.now()));
         em.persist(booking);
 
         em.flush();
@@ -300,6 +672,46 @@ public class ItemServiceTest {
         assertThat(result.getText()).isEqualTo("Крутой велосипед! Спасибо!");
     }
 
+    @Test
+    void mustKeepLatestCommentsInItemSummary() {
+        User owner = new User();
+        owner.setName("Макс Иванов");
+        owner.setEmail("Max@mail.ru");
+        em.persist(owner);
+
+        User booker = new User();
+        booker.setName("Андрей Алексеев");
+        booker.setEmail("Andrey@mail.ru");
+        em.persist(booker);
+
+        em.flush();
+
+        ItemDto item = itemService.createItem(owner.getId(),
+                new ItemDto(null, "Atom", "Велосипед горный", true, null));
+        persistBooking(em.find(Item.class, item.getId()), booker, LocalDateTime.now().minusDays(5),
+                LocalDateTime.now().minusDays(2), RentalStatus.APPROVED);
+        em.flush();
+
+        CommentResponseDto first = itemService.createComment(booker.getId(), item.getId(),
+                new CommentRequestDto("Крутой велосипед!"));
+        CommentResponseDto second = itemService.createComment(booker.getId(), item.getId(),
+                new CommentRequestDto("Спасибо!"));
+        em.flush();
+        em.clear();
+
+        ItemSummary summary = itemSummaryRepository.findById(item.getId()).orElseThrow();
+        assertThat(summary.getCommentCount()).isEqualTo(2);
+        assertThat(ItemSummary.parseCommentIds(summary.getLatestCommentIds()))
+                .containsExactly(second.getId(), first.getId());
+
+        List<ItemBookingDto> result = itemService.findUserItems(owner.getId());
+
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getComments())
+                .extracting(CommentResponseDto::getText)
+                .containsExactly("Спасибо!", "Крутой велосипед!");
+    }
+
     @Test
     void mustThrowWhenCommentWithoutBooking() {
         User owner = new User();
@@ -327,4 +739,41 @@ public class ItemServiceTest {
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("Пользователь может оставить комментарий после аренды");
     }
+
+    private List<ItemDto> search(String text) {
+        return itemService.searchItem(text, null, 0, 10).getContent();
+    }
+
+    private Booking booking(Item item, User booker, int startDays, int endDays, RentalStatus status) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(LocalDateTime.now().plusDays(startDays));
+        booking.setEnd(LocalDateTime.now().plusDays(endDays));
+        booking.setStatus(status);
+        booking.setPhase(BookingPhase.at(booking.getStart(), booking.getEnd(), LocalDateTime.now()));
+        em.persist(booking);
+        return booking;
+    }
+
+    private void persistBooking(Item item, User booker, LocalDateTime start, LocalDateTime end, RentalStatus status) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setStatus(status);
+        booking.setPhase(BookingPhase.at(booking.getStart(), booking.getEnd(), LocalDateTime.now()));
+        em.persist(booking);
+    }
+
+    private Comment comment(Item item, User author, String text, int hoursAgo) {
+        Comment comment = new Comment();
+        comment.setText(text);
+        comment.setAuthor(author);
+        comment.setItem(item);
+        comment.setCreated(LocalDateTime.now().minusHours(hoursAgo));
+        em.persist(comment);
+        return comment;
+    }
 }
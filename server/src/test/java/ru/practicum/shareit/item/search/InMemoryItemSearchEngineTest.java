@@ -0,0 +1,121 @@
+package ru.practicum.shareit.item.search;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.CommittedFixtures;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.CursorSlice;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Изменения через JdbcTemplate минуют слушатель индекса и имитируют записи другого экземпляра.
+ */
+@ActiveProfiles("test")
+@Import(CommittedFixtures.class)
+@SpringBootTest(
+        classes = ShareItApp.class,
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class InMemoryItemSearchEngineTest {
+    private final InMemoryItemSearchEngine searchEngine;
+    private final ItemService itemService;
+    private final JdbcTemplate jdbcTemplate;
+    private final CommittedFixtures fixtures;
+    private final EntityManagerFactory entityManagerFactory;
+
+    private Long ownerId;
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ownerId = fixtures.insert("INSERT INTO users (name, email) VALUES ('Владимир Петухов', 'Vladimir@mail.ru')");
+
+        for (int i = 0; i < 5; i++) {
+            ids.add(itemService.createItem(ownerId,
+                    new ItemDto(null, "Палатка " + i, "Туристическая", true, null)).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM items WHERE owner_id = ?", ownerId);
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", ownerId);
+        searchEngine.rebuild();
+    }
+
+    @Test
+    void pageShouldBeRefilledWhenIndexIsStale() {
+        jdbcTemplate.update("UPDATE items SET available = false WHERE id = ?", ids.get(0));
+        jdbcTemplate.update("UPDATE items SET name = 'Котелок', description = 'Походный' WHERE id = ?", ids.get(1));
+
+        CursorSlice<ItemDto> first = itemService.searchItem("палатка", null, 0, 2);
+        assertThat(first.getContent()).extracting(ItemDto::getId).containsExactly(ids.get(2), ids.get(3));
+        assertThat(first.getNextCursor()).isEqualTo(String.valueOf(ids.get(3)));
+
+        CursorSlice<ItemDto> second = itemService.searchItem("палатка", Long.valueOf(first.getNextCursor()), 0, 2);
+        assertThat(second.getContent()).extracting(ItemDto::getId).containsExactly(ids.get(4));
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    void rebuildShouldPickUpChangesMadeElsewhere() {
+        Long added = fixtures.insert("INSERT INTO items (name, description, available, owner_id) " +
+                "VALUES ('Палатка двухместная', 'Новая', true, " + ownerId + ")");
+        jdbcTemplate.update("DELETE FROM items WHERE id = ?", ids.get(0));
+        jdbcTemplate.update("UPDATE items SET name = 'Котелок', description = 'Походный' WHERE id = ?", ids.get(1));
+
+        assertThat(searchEngine.findIds("палатка")).doesNotContain(added).contains(ids.get(0), ids.get(1));
+
+        searchEngine.rebuild();
+
+        assertThat(searchEngine.findIds("палатка")).contains(added).doesNotContain(ids.get(0), ids.get(1));
+        assertThat(searchEngine.findIds("котелок")).containsExactly(ids.get(1));
+    }
+
+    @Test
+    void rebuildShouldNotLoadEntities() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        searchEngine.rebuild();
+
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getSecondLevelCachePutCount()).isZero();
+        assertThat(searchEngine.findIds("палатка")).containsAll(ids);
+    }
+
+    @Test
+    void unpagedSearchShouldReadCandidatesInChunks() {
+        jdbcTemplate.batchUpdate("INSERT INTO items (name, description, available, owner_id) VALUES (?, ?, ?, ?)",
+                IntStream.range(0, 1_200)
+                        .mapToObj(i -> new Object[]{"Палатка " + i, "Из другого экземпляра", true, ownerId})
+                        .toList());
+        searchEngine.rebuild();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        CursorSlice<ItemDto> all = itemService.searchItem("палатка", null, 0, null);
+
+        assertThat(all.getContent()).hasSize(1_205);
+        assertThat(all.getNextCursor()).isNull();
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(3);
+    }
+}
@@ -16,6 +16,7 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -71,6 +72,7 @@ public class ItemRequestServiceTest {
         ItemRequest itemRequest = new ItemRequest();
         itemRequest.setDescription("Нужен фотоаппарат");
         itemRequest.setRequestor(em.find(User.class, userId));
+        itemRequest.setCreated(LocalDateTime.now());
         em.persist(itemRequest);
         em.flush();
 
@@ -91,6 +93,7 @@ public class ItemRequestServiceTest {
         ItemRequest itemRequest = new ItemRequest();
         itemRequest.setDescription("Нужен фотоаппарат");
         itemRequest.setRequestor(requestor);
+        itemRequest.setCreated(LocalDateTime.now());
         em.persist(itemRequest);
         em.flush();
 
@@ -110,6 +113,7 @@ public class ItemRequestServiceTest {
         ItemRequest itemRequest = new ItemRequest();
         itemRequest.setDescription("Ищу гитару");
         itemRequest.setRequestor(requestor);
+        itemRequest.setCreated(LocalDateTime.now());
         em.persist(itemRequest);
 
         Item item = new Item();
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.KnownUsers;
+import ru.practicum.shareit.user.service.KnownUsersProperties;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class KnownUsersTest {
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void lookupStartedBeforeDeletionShouldNotRememberDeletedUser() {
+        KnownUsers knownUsers = new KnownUsers(userRepository, new KnownUsersProperties(Duration.ofMinutes(1)));
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertThat(knownUsers.exists(1L)).isTrue();
+
+        knownUsers.forget(1L);
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        TransactionSynchronizationManager.clearSynchronization();
+
+        when(userRepository.existsById(1L)).thenReturn(false);
+        assertThat(knownUsers.exists(1L)).isFalse();
+    }
+
+    @Test
+    void rememberedUserShouldBeRecheckedAfterTtl() throws InterruptedException {
+        KnownUsers knownUsers = new KnownUsers(userRepository, new KnownUsersProperties(Duration.ofMillis(50)));
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        assertThat(knownUsers.exists(1L)).isTrue();
+        assertThat(knownUsers.exists(1L)).isTrue();
+        verify(userRepository, times(1)).existsById(1L);
+
+        Thread.sleep(100);
+        when(userRepository.existsById(1L)).thenReturn(false);
+
+        assertThat(knownUsers.exists(1L)).isFalse();
+    }
+}